@@ -0,0 +1,47 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package com.afrunt.beanmetadata;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Base class of the bean accessors generated at runtime. Keeps the index of the field names
+ *
+ * @author Andrii Frunt
+ */
+public abstract class AbstractBeanAccessor implements BeanAccessor {
+    private final Map<String, Integer> indexes = new HashMap<>();
+
+    protected AbstractBeanAccessor(String[] fieldNames) {
+        for (int i = 0; i < fieldNames.length; i++) {
+            indexes.put(fieldNames[i], i);
+        }
+    }
+
+    @Override
+    public int indexOf(String fieldName) {
+        Integer index = indexes.get(fieldName);
+        return index != null ? index : -1;
+    }
+
+    protected RuntimeException unknownField(int index) {
+        return new BeanMetadataException("Field with index " + index + " is not accessible through " + getClass().getName());
+    }
+}
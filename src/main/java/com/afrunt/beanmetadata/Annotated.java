@@ -64,7 +64,11 @@ public interface Annotated {
     }
 
     default Annotated addAnnotations(Collection<Annotation> annotations) {
-        annotations.forEach(this::addAnnotation);
+        if (!annotations.isEmpty()) {
+            HashMap<Class<? extends Annotation>, Annotation> map = new HashMap<>(getAnnotationsMap());
+            annotations.forEach(a -> map.put(a.annotationType(), a));
+            setAnnotationsMap(map);
+        }
         return this;
     }
 
@@ -82,9 +86,16 @@ public interface Annotated {
     }
 
     default Set<? extends Annotation> removeAnnotations(Collection<Class<? extends Annotation>> annotationTypes) {
-        return annotationTypes.stream()
-                .map(a -> (Annotation) removeAnnotation(a))
+        if (annotationTypes.isEmpty()) {
+            return new HashSet<>();
+        }
+
+        HashMap<Class<? extends Annotation>, Annotation> map = new HashMap<>(getAnnotationsMap());
+        Set<Annotation> removedAnnotations = annotationTypes.stream()
+                .map(map::remove)
                 .collect(Collectors.toSet());
+        setAnnotationsMap(map);
+        return removedAnnotations;
     }
 
     default Set<Annotation> removeAllAnnotations() {
@@ -93,6 +104,19 @@ public interface Annotated {
         return annotations;
     }
 
+    /**
+     * Replaces the annotations with the compact immutable map. The further changes of the annotations are still
+     * possible, they copy the annotations to the new mutable map
+     */
+    default Annotated compactAnnotations() {
+        Map<Class<? extends Annotation>, Annotation> annotationsMap = getAnnotationsMap();
+        Map<Class<? extends Annotation>, Annotation> compactAnnotationsMap = CompactAnnotationsMap.of(annotationsMap);
+        if (compactAnnotationsMap != annotationsMap) {
+            setAnnotationsMap(compactAnnotationsMap);
+        }
+        return this;
+    }
+
     default boolean isAnnotatedWith(Class<? extends Annotation> annotationType) {
         return getAnnotation(annotationType) != null;
     }
@@ -0,0 +1,47 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package com.afrunt.beanmetadata;
+
+/**
+ * Reads and writes the fields of the bean by the field index, without reflection
+ *
+ * @author Andrii Frunt
+ */
+public interface BeanAccessor {
+    String GENERATED_CLASS_SUFFIX = "_BeanAccessor";
+
+    /**
+     * @return index of the readable field or -1 if the accessor does not know the field
+     */
+    int indexOf(String fieldName);
+
+    Object get(Object bean, int index);
+
+    void set(Object bean, int index, Object value);
+
+    static String generatedClassName(Class<?> beanClass) {
+        String packageName = beanClass.getPackage() == null ? "" : beanClass.getPackage().getName();
+        return generatedClassName(packageName, beanClass.getName().substring(packageName.isEmpty() ? 0 : packageName.length() + 1));
+    }
+
+    static String generatedClassName(String packageName, String binarySimpleName) {
+        String simpleName = binarySimpleName.replace('$', '_') + GENERATED_CLASS_SUFFIX;
+        return packageName.isEmpty() ? simpleName : packageName + "." + simpleName;
+    }
+}
@@ -0,0 +1,426 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package com.afrunt.beanmetadata;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Generates the {@link BeanAccessor} class for the bean at runtime. The accessor reads and writes the fields with a
+ * switch over the direct getter and setter invocations. The class is defined in the own class loader, so only the
+ * public beans with public getters and setters are supported
+ *
+ * @author Andrii Frunt
+ */
+final class BeanAccessorGenerator {
+    private static final String CLASS_NAME_SUFFIX = "$$BeanAccessor";
+    private static final String SUPERCLASS = internalName(AbstractBeanAccessor.class);
+
+    private static final int CLASS_FILE_VERSION = 49;
+    private static final int ACC_PUBLIC = 0x0001;
+    private static final int ACC_FINAL = 0x0010;
+    private static final int ACC_SUPER = 0x0020;
+
+    private static final int ALOAD_0 = 0x2a;
+    private static final int ALOAD_1 = 0x2b;
+    private static final int ALOAD_3 = 0x2d;
+    private static final int ILOAD_2 = 0x1c;
+    private static final int POP = 0x57;
+    private static final int POP2 = 0x58;
+    private static final int TABLESWITCH = 0xaa;
+    private static final int ARETURN = 0xb0;
+    private static final int RETURN = 0xb1;
+    private static final int INVOKEVIRTUAL = 0xb6;
+    private static final int INVOKESPECIAL = 0xb7;
+    private static final int INVOKESTATIC = 0xb8;
+    private static final int ATHROW = 0xbf;
+    private static final int CHECKCAST = 0xc0;
+
+    private final Class<?> beanClass;
+    private final List<? extends FieldMetadata> fieldsMetadata;
+    private final ConstantPool constantPool = new ConstantPool();
+
+    private BeanAccessorGenerator(Class<?> beanClass, List<? extends FieldMetadata> fieldsMetadata) {
+        this.beanClass = beanClass;
+        this.fieldsMetadata = fieldsMetadata;
+    }
+
+    /**
+     * @return generated accessor or null if the accessor cannot be generated for the bean
+     */
+    static BeanAccessor generate(Class<?> beanClass, List<? extends FieldMetadata> fieldsMetadata) {
+        if (!isSupported(beanClass, fieldsMetadata)) {
+            return null;
+        }
+
+        String className = beanClass.getName() + CLASS_NAME_SUFFIX;
+        String[] fieldNames = new String[fieldsMetadata.size()];
+        for (int i = 0; i < fieldNames.length; i++) {
+            fieldNames[i] = fieldsMetadata.get(i).getName();
+        }
+
+        try {
+            byte[] classFile = new BeanAccessorGenerator(beanClass, fieldsMetadata).classFile(internalName(className));
+            Class<?> accessorClass = new AccessorClassLoader(beanClass.getClassLoader()).define(className, classFile);
+            return (BeanAccessor) accessorClass.getConstructor(String[].class).newInstance((Object) fieldNames);
+        } catch (IOException | ReflectiveOperationException | LinkageError | SecurityException e) {
+            //Reflection will be used for this bean
+            return null;
+        }
+    }
+
+    /**
+     * The accessor is defined in another runtime package, so the bean class, its accessor methods and the types, that
+     * the generated code casts to, must be public
+     */
+    private static boolean isSupported(Class<?> beanClass, List<? extends FieldMetadata> fieldsMetadata) {
+        if (beanClass.getClassLoader() == null || beanClass.isInterface() || beanClass.isArray()
+                || beanClass.isPrimitive() || !isPublic(beanClass)) {
+            return false;
+        }
+
+        for (FieldMetadata fm : fieldsMetadata) {
+            if (!isSupported(fm.getGetter()) || (fm.getSetter() != null && !isSupported(fm.getSetter()))) {
+                return false;
+            }
+        }
+
+        return true;
+    }
+
+    private static boolean isSupported(Method method) {
+        if (method == null || !Modifier.isPublic(method.getModifiers()) || Modifier.isStatic(method.getModifiers())
+                || !isPublic(method.getReturnType())) {
+            return false;
+        }
+
+        for (Class<?> parameterType : method.getParameterTypes()) {
+            if (!isPublic(parameterType)) {
+                return false;
+            }
+        }
+
+        return true;
+    }
+
+    /**
+     * @return true if the type, the component type of the array and all their enclosing classes are public
+     */
+    private static boolean isPublic(Class<?> type) {
+        while (type.isArray()) {
+            type = type.getComponentType();
+        }
+
+        if (type.isPrimitive()) {
+            return true;
+        }
+
+        for (Class<?> c = type; c != null; c = c.getEnclosingClass()) {
+            if (!Modifier.isPublic(c.getModifiers())) {
+                return false;
+            }
+        }
+
+        return true;
+    }
+
+    private byte[] classFile(String className) throws IOException {
+        int thisClass = constantPool.classInfo(className);
+        int superClass = constantPool.classInfo(SUPERCLASS);
+
+        byte[] constructor = method("<init>", "([Ljava/lang/String;)V", 2, 2, constructorCode());
+        byte[] getMethod = method("get", "(Ljava/lang/Object;I)Ljava/lang/Object;", 4, 3, getCode());
+        byte[] setMethod = method("set", "(Ljava/lang/Object;ILjava/lang/Object;)V", 4, 4, setCode());
+
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        DataOutputStream out = new DataOutputStream(bytes);
+        out.writeInt(0xCAFEBABE);
+        out.writeShort(0);
+        out.writeShort(CLASS_FILE_VERSION);
+        constantPool.write(out);
+        out.writeShort(ACC_PUBLIC | ACC_FINAL | ACC_SUPER);
+        out.writeShort(thisClass);
+        out.writeShort(superClass);
+        out.writeShort(0);
+        out.writeShort(0);
+        out.writeShort(3);
+        out.write(constructor);
+        out.write(getMethod);
+        out.write(setMethod);
+        out.writeShort(0);
+        return bytes.toByteArray();
+    }
+
+    private byte[] method(String name, String descriptor, int maxStack, int maxLocals, byte[] code) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        DataOutputStream out = new DataOutputStream(bytes);
+        out.writeShort(ACC_PUBLIC);
+        out.writeShort(constantPool.utf8(name));
+        out.writeShort(constantPool.utf8(descriptor));
+        out.writeShort(1);
+        out.writeShort(constantPool.utf8("Code"));
+        out.writeInt(12 + code.length);
+        out.writeShort(maxStack);
+        out.writeShort(maxLocals);
+        out.writeInt(code.length);
+        out.write(code);
+        out.writeShort(0);
+        out.writeShort(0);
+        return bytes.toByteArray();
+    }
+
+    private byte[] constructorCode() throws IOException {
+        Code code = new Code();
+        code.op(ALOAD_0);
+        code.op(ALOAD_1);
+        code.op(INVOKESPECIAL, constantPool.methodRef(SUPERCLASS, "<init>", "([Ljava/lang/String;)V"));
+        code.op(RETURN);
+        return code.toByteArray();
+    }
+
+    private byte[] getCode() throws IOException {
+        byte[][] cases = new byte[fieldsMetadata.size()][];
+        for (int i = 0; i < cases.length; i++) {
+            Method getter = fieldsMetadata.get(i).getGetter();
+            Class<?> returnType = getter.getReturnType();
+
+            Code code = new Code();
+            code.op(ALOAD_1);
+            code.op(CHECKCAST, constantPool.classInfo(internalName(beanClass)));
+            code.op(INVOKEVIRTUAL, methodRef(getter));
+            if (returnType.isPrimitive()) {
+                Class<?> boxed = ClassUtil.boxed(returnType);
+                code.op(INVOKESTATIC, constantPool.methodRef(internalName(boxed), "valueOf",
+                        MethodType.methodType(boxed, returnType).toMethodDescriptorString()));
+            }
+            code.op(ARETURN);
+            cases[i] = code.toByteArray();
+        }
+        return switchCode(cases);
+    }
+
+    private byte[] setCode() throws IOException {
+        byte[][] cases = new byte[fieldsMetadata.size()][];
+        for (int i = 0; i < cases.length; i++) {
+            Method setter = fieldsMetadata.get(i).getSetter();
+            if (setter == null) {
+                continue;
+            }
+            Class<?> parameterType = setter.getParameterTypes()[0];
+            Class<?> returnType = setter.getReturnType();
+
+            Code code = new Code();
+            code.op(ALOAD_1);
+            code.op(CHECKCAST, constantPool.classInfo(internalName(beanClass)));
+            code.op(ALOAD_3);
+            if (parameterType.isPrimitive()) {
+                Class<?> boxed = ClassUtil.boxed(parameterType);
+                code.op(CHECKCAST, constantPool.classInfo(internalName(boxed)));
+                code.op(INVOKEVIRTUAL, constantPool.methodRef(internalName(boxed), parameterType.getName() + "Value",
+                        MethodType.methodType(parameterType).toMethodDescriptorString()));
+            } else if (!Object.class.equals(parameterType)) {
+                code.op(CHECKCAST, constantPool.classInfo(internalName(parameterType)));
+            }
+            code.op(INVOKEVIRTUAL, methodRef(setter));
+            if (long.class.equals(returnType) || double.class.equals(returnType)) {
+                code.op(POP2);
+            } else if (!void.class.equals(returnType)) {
+                code.op(POP);
+            }
+            code.op(RETURN);
+            cases[i] = code.toByteArray();
+        }
+        return switchCode(cases);
+    }
+
+    /**
+     * Switch over the field index. The missing cases and the unknown indexes throw the exception
+     */
+    private byte[] switchCode(byte[][] cases) throws IOException {
+        Code defaultCase = new Code();
+        defaultCase.op(ALOAD_0);
+        defaultCase.op(ILOAD_2);
+        defaultCase.op(INVOKEVIRTUAL, constantPool.methodRef(SUPERCLASS, "unknownField", "(I)Ljava/lang/RuntimeException;"));
+        defaultCase.op(ATHROW);
+
+        Code code = new Code();
+        if (cases.length > 0) {
+            int switchPosition = 1;
+            int padding = 3 - (switchPosition % 4);
+            int offset = 1 + padding + 12 + 4 * cases.length;
+
+            int[] caseOffsets = new int[cases.length];
+            for (int i = 0; i < cases.length; i++) {
+                if (cases[i] != null) {
+                    caseOffsets[i] = offset;
+                    offset += cases[i].length;
+                }
+            }
+            int defaultOffset = offset;
+
+            code.op(ILOAD_2);
+            code.op(TABLESWITCH);
+            for (int i = 0; i < padding; i++) {
+                code.out.writeByte(0);
+            }
+            code.out.writeInt(defaultOffset);
+            code.out.writeInt(0);
+            code.out.writeInt(cases.length - 1);
+            for (int i = 0; i < cases.length; i++) {
+                code.out.writeInt(cases[i] != null ? caseOffsets[i] : defaultOffset);
+            }
+            for (byte[] caseCode : cases) {
+                if (caseCode != null) {
+                    code.out.write(caseCode);
+                }
+            }
+        }
+        code.out.write(defaultCase.toByteArray());
+        return code.toByteArray();
+    }
+
+    private int methodRef(Method method) {
+        return constantPool.methodRef(internalName(beanClass), method.getName(),
+                MethodType.methodType(method.getReturnType(), method.getParameterTypes()).toMethodDescriptorString());
+    }
+
+    private static String internalName(Class<?> cl) {
+        return internalName(cl.getName());
+    }
+
+    private static String internalName(String className) {
+        return className.replace('.', '/');
+    }
+
+    private static final class Code {
+        private final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        private final DataOutputStream out = new DataOutputStream(bytes);
+
+        private void op(int opcode) throws IOException {
+            out.writeByte(opcode);
+        }
+
+        private void op(int opcode, int constantIndex) throws IOException {
+            out.writeByte(opcode);
+            out.writeShort(constantIndex);
+        }
+
+        private byte[] toByteArray() {
+            return bytes.toByteArray();
+        }
+    }
+
+    private static final class ConstantPool {
+        private static final int CONSTANT_UTF8 = 1;
+        private static final int CONSTANT_CLASS = 7;
+        private static final int CONSTANT_METHODREF = 10;
+        private static final int CONSTANT_NAME_AND_TYPE = 12;
+
+        private final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        private final DataOutputStream out = new DataOutputStream(bytes);
+        private final Map<String, Integer> indexes = new HashMap<>();
+        private int size = 1;
+
+        private int utf8(String value) {
+            return constant("utf8:" + value, constant -> {
+                constant.writeByte(CONSTANT_UTF8);
+                constant.writeUTF(value);
+            });
+        }
+
+        private int classInfo(String internalName) {
+            int name = utf8(internalName);
+            return constant("class:" + internalName, constant -> {
+                constant.writeByte(CONSTANT_CLASS);
+                constant.writeShort(name);
+            });
+        }
+
+        private int methodRef(String owner, String name, String descriptor) {
+            int ownerClass = classInfo(owner);
+            int nameIndex = utf8(name);
+            int descriptorIndex = utf8(descriptor);
+            int nameAndType = constant("nameAndType:" + name + ":" + descriptor, constant -> {
+                constant.writeByte(CONSTANT_NAME_AND_TYPE);
+                constant.writeShort(nameIndex);
+                constant.writeShort(descriptorIndex);
+            });
+            return constant("method:" + owner + "." + name + descriptor, constant -> {
+                constant.writeByte(CONSTANT_METHODREF);
+                constant.writeShort(ownerClass);
+                constant.writeShort(nameAndType);
+            });
+        }
+
+        private int constant(String key, ConstantWriter writer) {
+            Integer index = indexes.get(key);
+            if (index == null) {
+                try {
+                    writer.write(out);
+                } catch (IOException e) {
+                    throw new BeanMetadataException("Cannot write the constant " + key, e);
+                }
+                index = size++;
+                indexes.put(key, index);
+            }
+            return index;
+        }
+
+        private void write(DataOutputStream classFile) throws IOException {
+            classFile.writeShort(size);
+            classFile.write(bytes.toByteArray());
+        }
+    }
+
+    @FunctionalInterface
+    private interface ConstantWriter {
+        void write(DataOutputStream out) throws IOException;
+    }
+
+    /**
+     * Loads the generated accessor. The accessor base classes are always taken from this library, the other classes
+     * are resolved through the class loader of the bean
+     */
+    private static final class AccessorClassLoader extends ClassLoader {
+        private AccessorClassLoader(ClassLoader parent) {
+            super(parent);
+        }
+
+        @Override
+        protected Class<?> loadClass(String name, boolean resolve) throws ClassNotFoundException {
+            if (AbstractBeanAccessor.class.getName().equals(name)) {
+                return AbstractBeanAccessor.class;
+            } else if (BeanAccessor.class.getName().equals(name)) {
+                return BeanAccessor.class;
+            }
+            return super.loadClass(name, resolve);
+        }
+
+        private Class<?> define(String name, byte[] classFile) {
+            return defineClass(name, classFile, 0, classFile.length);
+        }
+    }
+}
@@ -0,0 +1,153 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package com.afrunt.beanmetadata;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * Copies the fields with the same name and compatible types from the bean of one type to the bean of another type.
+ * The fields are matched once, when the copier is created. The fields with the same getter and setter types are
+ * copied through the method handles without boxing and without the intermediate map
+ *
+ * @author Andrii Frunt
+ */
+public class BeanCopier {
+    private static final MethodType COPY_TYPE = MethodType.methodType(void.class, Object.class, Object.class);
+
+    private final BeanMetadata<?> sourceMetadata;
+    private final BeanMetadata<?> targetMetadata;
+    private final FieldMetadata[] sourceFields;
+    private final FieldMetadata[] targetFields;
+    private final MethodHandle[] copyHandles;
+
+    public BeanCopier(BeanMetadata<?> sourceMetadata, BeanMetadata<?> targetMetadata) {
+        this.sourceMetadata = sourceMetadata;
+        this.targetMetadata = targetMetadata;
+
+        List<FieldMetadata> sourceFields = new ArrayList<>();
+        List<FieldMetadata> targetFields = new ArrayList<>();
+        List<MethodHandle> copyHandles = new ArrayList<>();
+
+        for (FieldMetadata sourceField : sourceMetadata.getFieldsMetadata()) {
+            FieldMetadata targetField = targetMetadata.getFieldMetadata(sourceField.getName());
+
+            if (targetField == null || targetField.isReadOnly() || sourceField.getGetter() == null) {
+                continue;
+            }
+
+            Class<?> sourceType = sourceField.getGetter().getReturnType();
+            Class<?> targetType = targetField.getSetter().getParameterTypes()[0];
+
+            if (targetType.isAssignableFrom(sourceType)) {
+                sourceFields.add(sourceField);
+                targetFields.add(targetField);
+                copyHandles.add(copyHandle(sourceField.getGetter(), targetField.getSetter(), sourceType));
+            } else if (ClassUtil.isCompatiblePrimitives(sourceType, targetType)) {
+                sourceFields.add(sourceField);
+                targetFields.add(targetField);
+                copyHandles.add(null);
+            }
+        }
+
+        this.sourceFields = sourceFields.toArray(new FieldMetadata[0]);
+        this.targetFields = targetFields.toArray(new FieldMetadata[0]);
+        this.copyHandles = copyHandles.toArray(new MethodHandle[0]);
+    }
+
+    public <T> T copy(Object source, T target) {
+        if (source == null || target == null) {
+            throw new BeanMetadataException("Source and target beans are required for the copy");
+        }
+
+        if (!sourceMetadata.typeIsAssignableFrom(source.getClass())) {
+            throw new BeanMetadataException("Incompatible source bean type " + source.getClass());
+        }
+
+        if (!targetMetadata.typeIsAssignableFrom(target.getClass())) {
+            throw new BeanMetadataException("Incompatible target bean type " + target.getClass());
+        }
+
+        for (int i = 0; i < copyHandles.length; i++) {
+            MethodHandle copyHandle = copyHandles[i];
+            if (copyHandle != null) {
+                try {
+                    copyHandle.invokeExact(target, source);
+                } catch (Error | BeanMetadataException e) {
+                    throw e;
+                } catch (Throwable e) {
+                    throw new BeanMetadataException("Error copying field " + sourceFields[i] + " to " + targetFields[i], e);
+                }
+            } else {
+                Object value = sourceFields[i].getValue(source);
+                if (value != null || !targetFields[i].isPrimitive()) {
+                    targetFields[i].applyValue(target, value);
+                }
+            }
+        }
+
+        return target;
+    }
+
+    /**
+     * @return names of the copied fields
+     */
+    public List<String> getFieldNames() {
+        return Collections.unmodifiableList(Arrays.stream(sourceFields)
+                .map(FieldMetadata::getName)
+                .collect(Collectors.toList()));
+    }
+
+    public BeanMetadata<?> getSourceMetadata() {
+        return sourceMetadata;
+    }
+
+    public BeanMetadata<?> getTargetMetadata() {
+        return targetMetadata;
+    }
+
+    /**
+     * @return handle of type (Object,Object)void, that passes the value of the getter of the second argument to the
+     * setter of the first one, or null if the methods are not accessible through the method handles
+     */
+    private static MethodHandle copyHandle(Method getter, Method setter, Class<?> valueType) {
+        if (Modifier.isStatic(getter.getModifiers()) || Modifier.isStatic(setter.getModifiers())) {
+            return null;
+        }
+
+        try {
+            MethodHandles.Lookup lookup = MethodHandles.publicLookup();
+            MethodHandle getterHandle = lookup.unreflect(getter).asType(MethodType.methodType(valueType, Object.class));
+            MethodHandle setterHandle = lookup.unreflect(setter)
+                    .asType(MethodType.methodType(void.class, Object.class, valueType));
+            return MethodHandles.filterArguments(setterHandle, 1, getterHandle).asType(COPY_TYPE);
+        } catch (IllegalAccessException | RuntimeException e) {
+            //Fields will be copied through the field metadata
+            return null;
+        }
+    }
+}
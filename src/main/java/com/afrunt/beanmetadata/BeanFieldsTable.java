@@ -0,0 +1,43 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package com.afrunt.beanmetadata;
+
+/**
+ * Getters, setters and types of the fields declared by the bean class. The table is generated at compile time by the
+ * {@link com.afrunt.beanmetadata.processor.BeanAccessorProcessor}, so the collector finds the fields of the class without
+ * scanning its methods
+ *
+ * @author Andrii Frunt
+ */
+public interface BeanFieldsTable {
+    /**
+     * @return names of the getters declared by the bean class in the declaration order
+     */
+    String[] getDeclaredGetterNames();
+
+    /**
+     * @return names of the setters aligned with the declared getters. The name is null for the read-only field
+     */
+    String[] getDeclaredSetterNames();
+
+    /**
+     * @return types of the fields aligned with the declared getters
+     */
+    Class<?>[] getDeclaredFieldTypes();
+}
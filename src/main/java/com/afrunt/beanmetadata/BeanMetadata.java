@@ -19,9 +19,18 @@
 package com.afrunt.beanmetadata;
 
 import java.lang.annotation.Annotation;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Constructor;
 import java.lang.reflect.InvocationTargetException;
 import java.lang.reflect.Method;
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.Supplier;
 import java.util.stream.Collectors;
 
 /**
@@ -30,16 +39,56 @@ import java.util.stream.Collectors;
 public class BeanMetadata<FM extends FieldMetadata> implements Annotated, Typed {
     private Class<?> type;
 
-    private Map<String, FM> fieldsMetadataMap = new HashMap<>();
+    private TypeKind typeKind = TypeKind.OTHER;
+
+    private Map<String, FM> fieldsMetadataMap = new LinkedHashMap<>();
 
     private Map<Class<? extends Annotation>, Annotation> annotationsMap = new HashMap<>();
 
+    private BeanAccessor beanAccessor;
+
+    private volatile Supplier<? extends Collection<FM>> fieldsLoader;
+
+    private volatile FieldSlots fieldSlots;
+
+    private volatile Supplier<Object> instanceSupplier;
+
+    private volatile boolean frozen;
+
+    private volatile TargetGetters lastTargetGetters;
+
+    private final ClassValue<AtomicReference<TargetGetters>> targetGettersCache = new ClassValue<AtomicReference<TargetGetters>>() {
+        @Override
+        protected AtomicReference<TargetGetters> computeValue(Class<?> type) {
+            return new AtomicReference<>();
+        }
+    };
+
     public Class<?> getType() {
         return type;
     }
 
+    @Override
+    public TypeKind getTypeKind() {
+        return typeKind;
+    }
+
     public BeanMetadata setType(Class<?> type) {
+        checkNotFrozen();
         this.type = type;
+        this.typeKind = TypeKind.of(type);
+        this.instanceSupplier = null;
+        return this;
+    }
+
+    public BeanAccessor getBeanAccessor() {
+        return beanAccessor;
+    }
+
+    public BeanMetadata<FM> setBeanAccessor(BeanAccessor beanAccessor) {
+        checkNotFrozen();
+        this.beanAccessor = beanAccessor;
+        fieldSlots = null;
         return this;
     }
 
@@ -51,20 +100,88 @@ public class BeanMetadata<FM extends FieldMetadata> implements Annotated, Typed
         return createInstance(getType());
     }
 
+    @SuppressWarnings("unchecked")
     public <T> T createInstance(Class<T> type) {
         if (!typeIs(type)) {
             throw new BeanMetadataException("Wrong bean type" + type);
         }
 
+        return (T) getInstanceSupplier().get();
+    }
+
+    @SuppressWarnings("unchecked")
+    public List<Object> createInstances(int count) {
+        return createInstances((Class<Object>) getType(), count);
+    }
+
+    public <T> List<T> createInstances(Class<T> type, int count) {
+        if (!typeIs(type)) {
+            throw new BeanMetadataException("Wrong bean type" + type);
+        }
+
+        Supplier<Object> supplier = getInstanceSupplier();
+        List<T> instances = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            instances.add(type.cast(supplier.get()));
+        }
+        return instances;
+    }
+
+    /**
+     * @return supplier of the new instances of the bean, that invokes the no-argument constructor. The constructor is
+     * resolved once per bean type
+     */
+    public Supplier<Object> getInstanceSupplier() {
+        Supplier<Object> supplier = instanceSupplier;
+        if (supplier == null) {
+            supplier = createInstanceSupplier();
+            instanceSupplier = supplier;
+        }
+        return supplier;
+    }
+
+    private Supplier<Object> createInstanceSupplier() {
+        Class<?> beanType = getType();
+
         if (isAbstract()) {
-            throw new BeanMetadataException("Cannot create instance of abstract class " + getType());
+            return () -> {
+                throw new BeanMetadataException("Cannot create instance of abstract class " + beanType);
+            };
+        }
+
+        try {
+            MethodHandle constructor = MethodHandles.publicLookup()
+                    .findConstructor(beanType, MethodType.methodType(void.class))
+                    .asType(MethodType.methodType(Object.class));
+            return () -> {
+                try {
+                    return (Object) constructor.invokeExact();
+                } catch (Error | BeanMetadataException e) {
+                    throw e;
+                } catch (Throwable e) {
+                    throw new BeanMetadataException("Cannot create instance of " + beanType, e);
+                }
+            };
+        } catch (NoSuchMethodException | IllegalAccessException e) {
+            //Constructor is not public, reflection will be used
         }
 
+        Constructor<?> declaredConstructor;
         try {
-            return (T) getType().newInstance();
-        } catch (Exception e) {
-            throw new BeanMetadataException();
+            declaredConstructor = beanType.getDeclaredConstructor();
+        } catch (NoSuchMethodException | RuntimeException e) {
+            return () -> {
+                throw new BeanMetadataException("Cannot create instance of " + beanType, e);
+            };
         }
+
+        return () -> {
+            try {
+                return declaredConstructor.newInstance();
+            } catch (ReflectiveOperationException | RuntimeException e) {
+                throw new BeanMetadataException("Cannot create instance of " + beanType, e);
+            }
+        };
     }
 
     public Object beanFromMap(Map<String, Object> fieldsValues) {
@@ -76,25 +193,32 @@ public class BeanMetadata<FM extends FieldMetadata> implements Annotated, Typed
             throw new BeanMetadataException("Wrong bean type" + type);
         }
 
-        T instance = createInstance(type);
-        for (String fieldName : fieldsValues.keySet()) {
-            FM fm = getFieldMetadata(fieldName);
-            Object value = fieldsValues.get(fieldName);
-            if (fm != null && !fm.isReadOnly()) {
-
-                if (value == null && fm.isPrimitive()) {
-                    continue;
-                }
+        return getBeanPopulator().populate(createInstance(type), fieldsValues);
+    }
 
-                if (value != null && !fm.typeIsAssignableFrom(value.getClass())) {
-                    continue;
-                }
+    public Object beanFromArray(Object[] values) {
+        return beanFromArray(getType(), values);
+    }
 
-                fm.applyValue(instance, value);
-            }
+    /**
+     * @param values values of the fields, aligned to the field slots
+     */
+    public <T> T beanFromArray(Class<T> type, Object[] values) {
+        if (!typeIs(type)) {
+            throw new BeanMetadataException("Wrong bean type" + type);
         }
 
-        return instance;
+        return getBeanPopulator().populate(createInstance(type), values);
+    }
+
+    public BeanPopulator getBeanPopulator() {
+        FieldSlots slots = fieldSlots();
+        BeanPopulator beanPopulator = slots.beanPopulator;
+        if (beanPopulator == null) {
+            beanPopulator = new BeanPopulator(this);
+            slots.beanPopulator = beanPopulator;
+        }
+        return beanPopulator;
     }
 
     public Map<String, Object> beanToMap(Object bean) {
@@ -102,12 +226,20 @@ public class BeanMetadata<FM extends FieldMetadata> implements Annotated, Typed
             throw new BeanMetadataException("Bean cannot be null");
         }
 
-        if (typeIs(bean.getClass()) || typeIsAssignableFrom(bean.getClass())) {
+        Class<?> beanClass = bean.getClass();
+        if (typeIs(beanClass) || typeIsAssignableFrom(beanClass)) {
             Map<String, Object> map = new HashMap<>();
+            FieldSlots slots = fieldSlots();
 
-            for (FM fm : getFieldsMetadata()) {
-                Method targetGetter = getTargetGetter(bean, fm);
-                map.put(fm.getName(), invokeMethod(bean, targetGetter));
+            if (typeIs(beanClass)) {
+                for (int i = 0; i < slots.fieldsMetadata.length; i++) {
+                    map.put(slots.fieldsMetadata[i].getName(), slots.getValue(bean, i));
+                }
+            } else {
+                TargetGetters targetGetters = targetGetters(bean, slots);
+                for (int i = 0; i < slots.fieldsMetadata.length; i++) {
+                    map.put(slots.fieldsMetadata[i].getName(), targetGetters.getValue(bean, i));
+                }
             }
 
             return map;
@@ -116,34 +248,89 @@ public class BeanMetadata<FM extends FieldMetadata> implements Annotated, Typed
         }
     }
 
+    /**
+     * @return live map view of the bean. The values are read from the bean on every access and written through the
+     * setters. The view has the fixed set of keys, so the keys cannot be removed
+     */
+    public Map<String, Object> asMap(Object bean) {
+        if (bean == null) {
+            throw new BeanMetadataException("Bean cannot be null");
+        }
+
+        if (!typeIsAssignableFrom(bean.getClass())) {
+            throw new BeanMetadataException("Incompatible bean type " + bean.getClass());
+        }
+
+        return new BeanMapView(bean);
+    }
+
+    /**
+     * @return unmodifiable list of the fields ordered by the field slots. The list is not copied on every call
+     */
+    @SuppressWarnings("unchecked")
     public List<FM> getFieldsMetadata() {
-        return new ArrayList<>(fieldsMetadataMap.values());
+        return (List<FM>) fieldSlots().fieldsList;
+    }
+
+    @SuppressWarnings("unchecked")
+    public void forEachField(Consumer<? super FM> action) {
+        for (FieldMetadata fm : fieldSlots().fieldsMetadata) {
+            action.accept((FM) fm);
+        }
     }
 
     public BeanMetadata setFieldsMetadata(List<FM> fieldsMetadata) {
-        fieldsMetadataMap = new HashMap<>();
-        fieldsMetadata.forEach(fm -> fieldsMetadataMap.put(fm.getName(), fm));
+        checkNotFrozen();
+        Map<String, FM> map = new LinkedHashMap<>();
+        fieldsMetadata.forEach(fm -> map.put(fm.getName(), fm));
+        fieldsMetadataMap = map;
+        fieldsLoader = null;
+        fieldSlots = null;
+        return this;
+    }
+
+    public boolean isFieldsLoaded() {
+        return fieldsLoader == null;
+    }
+
+    /**
+     * Defers the field metadata collection until the first access to the fields. The loader is invoked once, under
+     * the lock of this bean metadata, and should not access the fields of this bean metadata
+     */
+    public BeanMetadata<FM> setFieldsLoader(Supplier<? extends Collection<FM>> fieldsLoader) {
+        checkNotFrozen();
+        this.fieldsLoader = fieldsLoader;
         return this;
     }
 
     public FM getFieldMetadata(String fieldName) {
-        return fieldsMetadataMap.get(fieldName);
+        return fieldsMetadataMap().get(fieldName);
     }
 
     public FM getOrCreateFieldMetadataByName(String name, FM fm) {
+        checkNotFrozen();
         fm.setName(name);
-        fieldsMetadataMap.putIfAbsent(name, fm);
-        return fieldsMetadataMap.get(name);
+        Map<String, FM> map = fieldsMetadataMap();
+        if (map.putIfAbsent(name, fm) == null) {
+            fieldSlots = null;
+        }
+        return map.get(name);
     }
 
+    /**
+     * @return unmodifiable set of the field names ordered by the field slots
+     */
     public Set<String> getFieldNames() {
-        return new HashSet<>(fieldsMetadataMap.keySet());
+        return fieldSlots().fieldNames;
     }
 
+    /**
+     * @return unmodifiable list of the fields annotated with the given annotation, ordered by the field slots. The list
+     * is built once and rebuilt only if the fields or their annotations were changed
+     */
+    @SuppressWarnings("unchecked")
     public List<FM> getFieldsAnnotatedWith(Class<? extends Annotation> annotation) {
-        return getFieldsMetadata().stream()
-                .filter(fm -> fm.isAnnotatedWith(annotation))
-                .collect(Collectors.toList());
+        return (List<FM>) fieldSlots().getFieldsAnnotatedWith(annotation);
     }
 
     public boolean hasField(String fieldName) {
@@ -151,7 +338,9 @@ public class BeanMetadata<FM extends FieldMetadata> implements Annotated, Typed
     }
 
     public void addFieldMetadata(FM fm) {
-        fieldsMetadataMap.put(fm.getName(), fm);
+        checkNotFrozen();
+        fieldsMetadataMap().put(fm.getName(), fm);
+        fieldSlots = null;
     }
 
     public void addFieldsMetadata(List<FM> fms) {
@@ -159,6 +348,7 @@ public class BeanMetadata<FM extends FieldMetadata> implements Annotated, Typed
     }
 
     public FM removeFieldMetadata(String fieldName) {
+        checkNotFrozen();
         FM fm = getFieldMetadata(fieldName);
         if (fm != null) {
             List<FM> fms = new ArrayList<>(getFieldsMetadata());
@@ -173,7 +363,7 @@ public class BeanMetadata<FM extends FieldMetadata> implements Annotated, Typed
             throw new BeanMetadataException("Field not found");
         }
 
-        return fm.getValue(instance);
+        return readField(instance, fm);
     }
 
     public Object getFieldValue(Object instance, String fieldName) {
@@ -192,12 +382,104 @@ public class BeanMetadata<FM extends FieldMetadata> implements Annotated, Typed
 
     public <T> T applyFieldValue(T instance, FM fm, Object value) {
         if (instance != null && fm != null) {
-            return fm.applyValue(instance, value);
+            if (fm.isReadOnly()) {
+                return fm.applyValue(instance, value);
+            }
+            fm.validateValue(value);
+            writeField(instance, fm, value);
+            return instance;
         } else {
             throw new BeanMetadataException("Instance and field metadata are required to apply the field value " + this);
         }
     }
 
+    /**
+     * Copies the fields from one bean of this type to another without the intermediate map
+     */
+    public <T> T copy(Object from, T to) {
+        FieldSlots slots = fieldSlots();
+        BeanCopier beanCopier = slots.beanCopier;
+        if (beanCopier == null) {
+            beanCopier = new BeanCopier(this, this);
+            slots.beanCopier = beanCopier;
+        }
+        return beanCopier.copy(from, to);
+    }
+
+    public BeanCopier copierTo(BeanMetadata<?> targetMetadata) {
+        return new BeanCopier(this, targetMetadata);
+    }
+
+    /**
+     * @return slot of the field or -1 if there is no such field. The slots are dense, ordered by {@link #fieldsOrder()}
+     * and stay the same until the fields of this bean metadata are changed
+     */
+    public int indexOf(String fieldName) {
+        Integer slot = fieldSlots().slots.get(fieldName);
+        return slot != null ? slot : -1;
+    }
+
+    @SuppressWarnings("unchecked")
+    public FM getFieldMetadata(int slot) {
+        return (FM) fieldSlots().fieldMetadata(slot);
+    }
+
+    public Object getFieldValue(Object instance, int slot) {
+        FieldSlots slots = fieldSlots();
+        slots.fieldMetadata(slot);
+        return slots.getValue(instance, slot);
+    }
+
+    public <T> T applyFieldValue(T instance, int slot, Object value) {
+        FieldSlots slots = fieldSlots();
+        FieldMetadata fm = slots.fieldMetadata(slot);
+        int accessorIndex = slots.accessorIndexes[slot];
+
+        if (instance == null) {
+            throw new BeanMetadataException("Instance is required to apply the field value " + this);
+        }
+
+        if (accessorIndex >= 0 && !fm.isReadOnly()) {
+            fm.validateValue(value);
+            slots.beanAccessor.set(instance, accessorIndex, value);
+            return instance;
+        } else {
+            return fm.applyValue(instance, value);
+        }
+    }
+
+    public int getInt(Object instance, String fieldName) {
+        return requiredFieldMetadata(fieldName).getInt(instance);
+    }
+
+    public long getLong(Object instance, String fieldName) {
+        return requiredFieldMetadata(fieldName).getLong(instance);
+    }
+
+    public double getDouble(Object instance, String fieldName) {
+        return requiredFieldMetadata(fieldName).getDouble(instance);
+    }
+
+    public boolean getBoolean(Object instance, String fieldName) {
+        return requiredFieldMetadata(fieldName).getBoolean(instance);
+    }
+
+    public <T> T setInt(T instance, String fieldName, int value) {
+        return requiredFieldMetadata(fieldName).setInt(instance, value);
+    }
+
+    public <T> T setLong(T instance, String fieldName, long value) {
+        return requiredFieldMetadata(fieldName).setLong(instance, value);
+    }
+
+    public <T> T setDouble(T instance, String fieldName, double value) {
+        return requiredFieldMetadata(fieldName).setDouble(instance, value);
+    }
+
+    public <T> T setBoolean(T instance, String fieldName, boolean value) {
+        return requiredFieldMetadata(fieldName).setBoolean(instance, value);
+    }
+
     @Override
     public Map<Class<? extends Annotation>, Annotation> getAnnotationsMap() {
         return annotationsMap;
@@ -205,10 +487,165 @@ public class BeanMetadata<FM extends FieldMetadata> implements Annotated, Typed
 
     @Override
     public BeanMetadata<FM> setAnnotationsMap(Map<Class<? extends Annotation>, Annotation> annotationsMap) {
+        checkNotFrozen();
         this.annotationsMap = annotationsMap;
         return this;
     }
 
+    /**
+     * Makes this bean metadata and its fields immutable. The fields are loaded, the annotations are compacted and the
+     * derived values are computed, so the frozen metadata can be shared between threads. Any further modification
+     * throws {@link BeanMetadataException}
+     */
+    public BeanMetadata<FM> freeze() {
+        if (frozen) {
+            return this;
+        }
+
+        synchronized (this) {
+            if (!frozen) {
+                compactAnnotations();
+                Map<String, FM> map = new LinkedHashMap<>(fieldsMetadataMap());
+                map.values().forEach(FieldMetadata::freeze);
+                fieldsMetadataMap = Collections.unmodifiableMap(map);
+                fieldSlots = null;
+                fieldSlots();
+                getInstanceSupplier();
+                frozen = true;
+            }
+        }
+
+        return this;
+    }
+
+    public boolean isFrozen() {
+        return frozen;
+    }
+
+    private void checkNotFrozen() {
+        if (frozen) {
+            throw new BeanMetadataException("Bean metadata is frozen " + this);
+        }
+    }
+
+    private Map<String, FM> fieldsMetadataMap() {
+        if (fieldsLoader != null) {
+            loadFields();
+        }
+        return fieldsMetadataMap;
+    }
+
+    private synchronized void loadFields() {
+        Supplier<? extends Collection<FM>> loader = fieldsLoader;
+        if (loader != null) {
+            Map<String, FM> map = new LinkedHashMap<>();
+            for (FM fm : loader.get()) {
+                map.put(fm.getName(), fm);
+            }
+            fieldsMetadataMap = map;
+            fieldsLoader = null;
+            fieldSlots = null;
+        }
+    }
+
+    /**
+     * @return order of the field slots or null to keep the order, in which the fields were added
+     */
+    protected Comparator<? super FM> fieldsOrder() {
+        return null;
+    }
+
+    private FieldSlots fieldSlots() {
+        FieldSlots slots = fieldSlots;
+        if (slots == null) {
+            List<FM> fieldsMetadata = new ArrayList<>(fieldsMetadataMap().values());
+            Comparator<? super FM> fieldsOrder = fieldsOrder();
+            if (fieldsOrder != null) {
+                fieldsMetadata.sort(fieldsOrder);
+            }
+            slots = new FieldSlots(fieldsMetadata, beanAccessor);
+            fieldSlots = slots;
+            for (FM fm : fieldsMetadata) {
+                fm.addAnnotationsListener(this);
+            }
+        }
+        return slots;
+    }
+
+    /**
+     * Called by the fields of this bean, when their annotations are changed
+     */
+    void fieldAnnotationsChanged() {
+        FieldSlots slots = fieldSlots;
+        if (slots != null) {
+            slots.annotatedFields.clear();
+        }
+    }
+
+    /**
+     * Getters of the subclass are resolved once per the subclass and the current fields of this bean metadata
+     */
+    @SuppressWarnings("unchecked")
+    private TargetGetters targetGetters(Object bean, FieldSlots slots) {
+        Class<?> beanClass = bean.getClass();
+        TargetGetters targetGetters = lastTargetGetters;
+        if (targetGetters != null && targetGetters.beanClass == beanClass && targetGetters.slots == slots) {
+            return targetGetters;
+        }
+
+        AtomicReference<TargetGetters> cachedTargetGetters = targetGettersCache.get(beanClass);
+        targetGetters = cachedTargetGetters.get();
+        if (targetGetters == null || targetGetters.slots != slots) {
+            Method[] getters = new Method[slots.fieldsMetadata.length];
+            for (int i = 0; i < getters.length; i++) {
+                getters[i] = getTargetGetter(bean, (FM) slots.fieldsMetadata[i]);
+            }
+            targetGetters = new TargetGetters(beanClass, slots, getters);
+            cachedTargetGetters.set(targetGetters);
+        }
+
+        lastTargetGetters = targetGetters;
+        return targetGetters;
+    }
+
+    private FM requiredFieldMetadata(String fieldName) {
+        FM fm = getFieldMetadata(fieldName);
+
+        if (fm == null) {
+            throw new BeanMetadataException("Field not found " + fieldName);
+        }
+
+        return fm;
+    }
+
+    private Object readField(Object instance, FM fm) {
+        int accessorIndex = accessorIndex(fm);
+        if (accessorIndex >= 0) {
+            return beanAccessor.get(instance, accessorIndex);
+        } else {
+            return fm.getValue(instance);
+        }
+    }
+
+    private void writeField(Object instance, FM fm, Object value) {
+        int accessorIndex = accessorIndex(fm);
+        if (accessorIndex >= 0) {
+            beanAccessor.set(instance, accessorIndex, value);
+        } else {
+            try {
+                fm.getSetterFunction().accept(instance, value);
+            } catch (BeanMetadataException e) {
+                throw e;
+            } catch (RuntimeException e) {
+                throw new BeanMetadataException("Error applying value " + fm, e);
+            }
+        }
+    }
+
+    protected int accessorIndex(FM fm) {
+        return beanAccessor == null ? -1 : beanAccessor.indexOf(fm.getName());
+    }
+
     protected Method getTargetGetter(Object target, FM fm) {
         try {
             Method originalGetter = fm.getGetter();
@@ -235,4 +672,210 @@ public class BeanMetadata<FM extends FieldMetadata> implements Annotated, Typed
     public String toString() {
         return "BeanMetadata[" + getSimpleTypeName() + "]";
     }
+
+    private final class BeanMapView extends AbstractMap<String, Object> {
+        private final Object bean;
+        private final boolean exactType;
+
+        private BeanMapView(Object bean) {
+            this.bean = bean;
+            this.exactType = typeIs(bean.getClass());
+        }
+
+        @Override
+        public int size() {
+            return fieldSlots().fieldsMetadata.length;
+        }
+
+        @Override
+        public boolean containsKey(Object key) {
+            return key instanceof String && indexOf((String) key) >= 0;
+        }
+
+        @Override
+        public Object get(Object key) {
+            if (!(key instanceof String)) {
+                return null;
+            }
+
+            FieldSlots slots = fieldSlots();
+            Integer slot = slots.slots.get(key);
+            return slot != null ? getValue(slots, slot) : null;
+        }
+
+        @Override
+        public Object put(String key, Object value) {
+            FieldSlots slots = fieldSlots();
+            Integer slot = slots.slots.get(key);
+
+            if (slot == null) {
+                throw new BeanMetadataException("Field not found " + key);
+            }
+
+            Object previousValue = getValue(slots, slot);
+            applyFieldValue(bean, slot, value);
+            return previousValue;
+        }
+
+        @Override
+        public Set<Entry<String, Object>> entrySet() {
+            return new AbstractSet<Entry<String, Object>>() {
+                @Override
+                public Iterator<Entry<String, Object>> iterator() {
+                    FieldSlots slots = fieldSlots();
+                    return new Iterator<Entry<String, Object>>() {
+                        private int slot;
+
+                        @Override
+                        public boolean hasNext() {
+                            return slot < slots.fieldsMetadata.length;
+                        }
+
+                        @Override
+                        public Entry<String, Object> next() {
+                            if (!hasNext()) {
+                                throw new NoSuchElementException();
+                            }
+                            return new SlotEntry(slots, slot++);
+                        }
+                    };
+                }
+
+                @Override
+                public int size() {
+                    return BeanMapView.this.size();
+                }
+            };
+        }
+
+        private Object getValue(FieldSlots slots, int slot) {
+            return exactType ? slots.getValue(bean, slot) : targetGetters(bean, slots).getValue(bean, slot);
+        }
+
+        private final class SlotEntry implements Entry<String, Object> {
+            private final FieldSlots slots;
+            private final int slot;
+
+            private SlotEntry(FieldSlots slots, int slot) {
+                this.slots = slots;
+                this.slot = slot;
+            }
+
+            @Override
+            public String getKey() {
+                return slots.fieldsMetadata[slot].getName();
+            }
+
+            @Override
+            public Object getValue() {
+                return BeanMapView.this.getValue(slots, slot);
+            }
+
+            @Override
+            public Object setValue(Object value) {
+                return put(getKey(), value);
+            }
+
+            @Override
+            public boolean equals(Object o) {
+                if (!(o instanceof Entry)) {
+                    return false;
+                }
+                Entry<?, ?> entry = (Entry<?, ?>) o;
+                return getKey().equals(entry.getKey()) && Objects.equals(getValue(), entry.getValue());
+            }
+
+            @Override
+            public int hashCode() {
+                return getKey().hashCode() ^ Objects.hashCode(getValue());
+            }
+
+            @Override
+            public String toString() {
+                return getKey() + "=" + getValue();
+            }
+        }
+    }
+
+    private static final class TargetGetters {
+        private final Class<?> beanClass;
+        private final FieldSlots slots;
+        private final Method[] getters;
+        private final List<Function<Object, Object>> getterFunctions;
+
+        private TargetGetters(Class<?> beanClass, FieldSlots slots, Method[] getters) {
+            this.beanClass = beanClass;
+            this.slots = slots;
+            this.getters = getters;
+            this.getterFunctions = new ArrayList<>(getters.length);
+            for (Method getter : getters) {
+                MethodHandle getterHandle = FieldAccessors.methodHandle(getter, MethodType.methodType(Object.class, Object.class));
+                getterFunctions.add(FieldAccessors.getterFunction(getter, getterHandle));
+            }
+        }
+
+        private Object getValue(Object bean, int slot) {
+            try {
+                return getterFunctions.get(slot).apply(bean);
+            } catch (BeanMetadataException e) {
+                throw e;
+            } catch (RuntimeException e) {
+                throw new BeanMetadataException("Error during method invocation " + getters[slot], e);
+            }
+        }
+    }
+
+    private static final class FieldSlots {
+        private final FieldMetadata[] fieldsMetadata;
+        private final int[] accessorIndexes;
+        private final Map<String, Integer> slots = new LinkedHashMap<>();
+        private final List<FieldMetadata> fieldsList;
+        private final Set<String> fieldNames;
+        private final BeanAccessor beanAccessor;
+        private volatile BeanCopier beanCopier;
+        private volatile BeanPopulator beanPopulator;
+        private final Map<Class<? extends Annotation>, List<FieldMetadata>> annotatedFields = new ConcurrentHashMap<>();
+
+        private FieldSlots(List<? extends FieldMetadata> fieldsMetadata, BeanAccessor beanAccessor) {
+            this.fieldsMetadata = fieldsMetadata.toArray(new FieldMetadata[0]);
+            this.accessorIndexes = new int[this.fieldsMetadata.length];
+            this.beanAccessor = beanAccessor;
+
+            for (int i = 0; i < this.fieldsMetadata.length; i++) {
+                String fieldName = this.fieldsMetadata[i].getName();
+                slots.put(fieldName, i);
+                accessorIndexes[i] = beanAccessor == null ? -1 : beanAccessor.indexOf(fieldName);
+            }
+
+            this.fieldsList = Collections.unmodifiableList(Arrays.asList(this.fieldsMetadata));
+            this.fieldNames = Collections.unmodifiableSet(slots.keySet());
+        }
+
+        private Object getValue(Object instance, int slot) {
+            int accessorIndex = accessorIndexes[slot];
+            if (accessorIndex >= 0) {
+                return beanAccessor.get(instance, accessorIndex);
+            } else {
+                return fieldsMetadata[slot].getValue(instance);
+            }
+        }
+
+        private List<FieldMetadata> getFieldsAnnotatedWith(Class<? extends Annotation> annotation) {
+            List<FieldMetadata> fields = annotatedFields.get(annotation);
+            if (fields == null) {
+                fields = Collections.unmodifiableList(Arrays.stream(fieldsMetadata)
+                        .filter(fm -> fm.isAnnotatedWith(annotation))
+                        .collect(Collectors.toList()));
+                annotatedFields.put(annotation, fields);
+            }
+            return fields;
+        }
+
+        private FieldMetadata fieldMetadata(int slot) {
+            if (slot < 0 || slot >= fieldsMetadata.length) {
+                throw new BeanMetadataException("Field not found. Wrong slot " + slot);
+            }
+            return fieldsMetadata[slot];
+        }
+    }
 }
@@ -0,0 +1,117 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package com.afrunt.beanmetadata;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Populates the beans of one type from the maps or from the arrays of values aligned to the field slots. The fields,
+ * accessors and the last accepted class of the value for every field are resolved once per populator
+ *
+ * @author Andrii Frunt
+ */
+public class BeanPopulator {
+    private final BeanMetadata<?> beanMetadata;
+    private final FieldMetadata[] fieldsMetadata;
+    private final int[] accessorIndexes;
+    private final BeanAccessor beanAccessor;
+    private final Class<?>[] acceptedClasses;
+    private final Map<String, Integer> slots = new HashMap<>();
+
+    public BeanPopulator(BeanMetadata<?> beanMetadata) {
+        this.beanMetadata = beanMetadata;
+        this.beanAccessor = beanMetadata.getBeanAccessor();
+        this.fieldsMetadata = new FieldMetadata[beanMetadata.getFieldNames().size()];
+        this.accessorIndexes = new int[fieldsMetadata.length];
+        this.acceptedClasses = new Class<?>[fieldsMetadata.length];
+
+        for (int i = 0; i < fieldsMetadata.length; i++) {
+            fieldsMetadata[i] = beanMetadata.getFieldMetadata(i);
+            slots.put(fieldsMetadata[i].getName(), i);
+            accessorIndexes[i] = beanAccessor == null ? -1 : beanAccessor.indexOf(fieldsMetadata[i].getName());
+        }
+    }
+
+    /**
+     * Applies the values of the writable fields. The unknown fields, nulls for the primitive fields and the values of
+     * incompatible types are skipped
+     */
+    public <T> T populate(T instance, Map<String, Object> fieldsValues) {
+        for (Map.Entry<String, Object> entry : fieldsValues.entrySet()) {
+            Integer slot = slots.get(entry.getKey());
+            if (slot != null) {
+                applyValue(instance, slot, entry.getValue());
+            }
+        }
+        return instance;
+    }
+
+    /**
+     * Applies the values by the field slots. The value with index i is applied to the field with slot i
+     */
+    public <T> T populate(T instance, Object[] values) {
+        if (values.length != fieldsMetadata.length) {
+            throw new BeanMetadataException("Expected " + fieldsMetadata.length + " values, but was " + values.length);
+        }
+
+        for (int i = 0; i < values.length; i++) {
+            applyValue(instance, i, values[i]);
+        }
+        return instance;
+    }
+
+    public BeanMetadata<?> getBeanMetadata() {
+        return beanMetadata;
+    }
+
+    private void applyValue(Object instance, int slot, Object value) {
+        FieldMetadata fm = fieldsMetadata[slot];
+
+        if (fm.isReadOnly() || (value == null && fm.isPrimitive()) || (value != null && !accepts(slot, value.getClass()))) {
+            return;
+        }
+
+        int accessorIndex = accessorIndexes[slot];
+        if (accessorIndex >= 0) {
+            beanAccessor.set(instance, accessorIndex, value);
+        } else {
+            try {
+                fm.getSetterFunction().accept(instance, value);
+            } catch (BeanMetadataException e) {
+                throw e;
+            } catch (RuntimeException e) {
+                throw new BeanMetadataException("Error applying value " + fm, e);
+            }
+        }
+    }
+
+    private boolean accepts(int slot, Class<?> valueClass) {
+        if (acceptedClasses[slot] == valueClass) {
+            return true;
+        }
+
+        if (fieldsMetadata[slot].typeIsAssignableFrom(valueClass)) {
+            acceptedClasses[slot] = valueClass;
+            return true;
+        }
+
+        return false;
+    }
+}
@@ -0,0 +1,394 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package com.afrunt.beanmetadata;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.lang.annotation.Annotation;
+import java.net.JarURLConnection;
+import java.net.URISyntaxException;
+import java.net.URL;
+import java.net.URLConnection;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.*;
+import java.util.jar.JarEntry;
+import java.util.jar.JarFile;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Finds the classes of the packages in directories and jars. The class files are checked for the annotations before
+ * the class loading, so the classes without required annotations are never loaded. Only the annotations declared
+ * directly on the class are taken into account
+ *
+ * @author Andrii Frunt
+ */
+public class ClassPathScanner {
+    private static final String CLASS_FILE_EXTENSION = ".class";
+    private static final String RUNTIME_VISIBLE_ANNOTATIONS = "RuntimeVisibleAnnotations";
+
+    private final ClassLoader classLoader;
+
+    public ClassPathScanner() {
+        this(defaultClassLoader());
+    }
+
+    public ClassPathScanner(ClassLoader classLoader) {
+        this.classLoader = classLoader;
+    }
+
+    public List<Class<?>> scan(String... packages) {
+        return scan(Collections.emptyList(), packages);
+    }
+
+    /**
+     * @param annotationTypes the class is loaded if it is annotated with any of the given annotations or if no
+     *                        annotations are given
+     */
+    public List<Class<?>> scan(Collection<Class<? extends Annotation>> annotationTypes, String... packages) {
+        Set<String> descriptors = annotationTypes.stream()
+                .map(a -> "L" + a.getName().replace('.', '/') + ";")
+                .collect(Collectors.toSet());
+
+        Set<String> classNames = new TreeSet<>();
+
+        for (String packageName : packages) {
+            String packagePath = packageName.replace('.', '/');
+            try {
+                Enumeration<URL> resources = classLoader.getResources(packagePath);
+                while (resources.hasMoreElements()) {
+                    scanResource(resources.nextElement(), packagePath, descriptors, classNames);
+                }
+            } catch (IOException e) {
+                throw new BeanMetadataException("Error scanning package " + packageName, e);
+            }
+        }
+
+        List<Class<?>> classes = new ArrayList<>();
+        for (String className : classNames) {
+            try {
+                classes.add(Class.forName(className, false, classLoader));
+            } catch (ClassNotFoundException | LinkageError e) {
+                throw new BeanMetadataException("Error loading scanned class " + className, e);
+            }
+        }
+        return classes;
+    }
+
+    private void scanResource(URL url, String packagePath, Set<String> descriptors, Set<String> classNames) throws IOException {
+        if ("file".equals(url.getProtocol())) {
+            scanDirectory(toPath(url), packagePath, descriptors, classNames);
+        } else {
+            URLConnection connection = url.openConnection();
+            if (connection instanceof JarURLConnection) {
+                connection.setUseCaches(false);
+                try (JarFile jarFile = ((JarURLConnection) connection).getJarFile()) {
+                    scanJar(jarFile, packagePath, descriptors, classNames);
+                }
+            }
+        }
+    }
+
+    private void scanDirectory(Path packageDirectory, String packagePath, Set<String> descriptors, Set<String> classNames) throws IOException {
+        List<Path> classFiles;
+        try (Stream<Path> paths = Files.walk(packageDirectory)) {
+            classFiles = paths
+                    .filter(p -> p.getFileName().toString().endsWith(CLASS_FILE_EXTENSION))
+                    .filter(Files::isRegularFile)
+                    .collect(Collectors.toList());
+        }
+
+        for (Path classFile : classFiles) {
+            String relativePath = packageDirectory.relativize(classFile).toString().replace(classFile.getFileSystem().getSeparator(), "/");
+            String resourceName = packagePath.isEmpty() ? relativePath : packagePath + "/" + relativePath;
+            if (isCandidate(resourceName) && isAnnotatedWithAny(readClassFile(classFile), descriptors)) {
+                classNames.add(classNameFromResource(resourceName));
+            }
+        }
+    }
+
+    private void scanJar(JarFile jarFile, String packagePath, Set<String> descriptors, Set<String> classNames) throws IOException {
+        String prefix = packagePath.isEmpty() ? "" : packagePath + "/";
+        Enumeration<JarEntry> entries = jarFile.entries();
+        while (entries.hasMoreElements()) {
+            JarEntry entry = entries.nextElement();
+            String resourceName = entry.getName();
+            if (!entry.isDirectory() && resourceName.startsWith(prefix) && isCandidate(resourceName)) {
+                try (InputStream is = jarFile.getInputStream(entry)) {
+                    if (isAnnotatedWithAny(ByteBuffer.wrap(readFully(is, (int) entry.getSize())), descriptors)) {
+                        classNames.add(classNameFromResource(resourceName));
+                    }
+                }
+            }
+        }
+    }
+
+    private boolean isCandidate(String resourceName) {
+        return resourceName.endsWith(CLASS_FILE_EXTENSION)
+                && !resourceName.endsWith("module-info" + CLASS_FILE_EXTENSION)
+                && !resourceName.endsWith("package-info" + CLASS_FILE_EXTENSION);
+    }
+
+    private ByteBuffer readClassFile(Path classFile) throws IOException {
+        try (FileChannel channel = FileChannel.open(classFile, StandardOpenOption.READ)) {
+            ByteBuffer buffer = ByteBuffer.allocate((int) channel.size());
+            while (buffer.hasRemaining() && channel.read(buffer) >= 0) {
+                // Read until the buffer is full
+            }
+            buffer.flip();
+            return buffer;
+        }
+    }
+
+    private static byte[] readFully(InputStream is, int sizeHint) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(sizeHint > 0 ? sizeHint : 4096);
+        byte[] buffer = new byte[4096];
+        int read;
+        while ((read = is.read(buffer)) >= 0) {
+            out.write(buffer, 0, read);
+        }
+        return out.toByteArray();
+    }
+
+    /**
+     * Reads the constant pool and the class attributes of the class file and looks for the annotation descriptors in
+     * the RuntimeVisibleAnnotations attribute. The structure is described in the chapter 4 of the JVM specification.
+     * The class files, that cannot be parsed, are treated as not annotated
+     */
+    private boolean isAnnotatedWithAny(ByteBuffer classFile, Set<String> descriptors) {
+        if (descriptors.isEmpty()) {
+            return true;
+        }
+
+        try {
+            return containsAnyAnnotation(classFile, descriptors);
+        } catch (RuntimeException e) {
+            //Truncated or corrupted class file
+            return false;
+        }
+    }
+
+    private boolean containsAnyAnnotation(ByteBuffer classFile, Set<String> descriptors) {
+        if (classFile.getInt() != 0xCAFEBABE) {
+            return false;
+        }
+
+        classFile.position(classFile.position() + 4);
+
+        String[] utf8 = readConstantPool(classFile);
+        if (utf8 == null || Collections.disjoint(Arrays.asList(utf8), descriptors)) {
+            return false;
+        }
+
+        // access_flags, this_class, super_class
+        classFile.position(classFile.position() + 6);
+        int interfacesCount = classFile.getShort() & 0xFFFF;
+        classFile.position(classFile.position() + interfacesCount * 2);
+
+        skipMembers(classFile);
+        skipMembers(classFile);
+
+        int attributesCount = classFile.getShort() & 0xFFFF;
+        for (int i = 0; i < attributesCount; i++) {
+            String attributeName = utf8[classFile.getShort() & 0xFFFF];
+            int attributeLength = classFile.getInt();
+            if (RUNTIME_VISIBLE_ANNOTATIONS.equals(attributeName)) {
+                int annotationsCount = classFile.getShort() & 0xFFFF;
+                for (int j = 0; j < annotationsCount; j++) {
+                    if (descriptors.contains(utf8[classFile.getShort() & 0xFFFF])) {
+                        return true;
+                    }
+                    skipAnnotationElements(classFile);
+                }
+                return false;
+            } else {
+                classFile.position(classFile.position() + attributeLength);
+            }
+        }
+
+        return false;
+    }
+
+    /**
+     * @return names of the methods in the order, in which they are declared in the class file, or null if the class
+     * file is not available or cannot be parsed
+     */
+    static List<String> declaredMethodNames(Class<?> cl) {
+        String resourceName = cl.getName().replace('.', '/') + CLASS_FILE_EXTENSION;
+        ClassLoader classLoader = cl.getClassLoader();
+
+        try (InputStream is = classLoader != null ? classLoader.getResourceAsStream(resourceName) : ClassLoader.getSystemResourceAsStream(resourceName)) {
+            if (is == null) {
+                return null;
+            }
+
+            ByteBuffer classFile = ByteBuffer.wrap(readFully(is, is.available()));
+            if (classFile.getInt() != 0xCAFEBABE) {
+                return null;
+            }
+
+            classFile.position(classFile.position() + 4);
+
+            String[] utf8 = readConstantPool(classFile);
+            if (utf8 == null) {
+                return null;
+            }
+
+            // access_flags, this_class, super_class
+            classFile.position(classFile.position() + 6);
+            int interfacesCount = classFile.getShort() & 0xFFFF;
+            classFile.position(classFile.position() + interfacesCount * 2);
+
+            skipMembers(classFile);
+
+            int methodsCount = classFile.getShort() & 0xFFFF;
+            List<String> methodNames = new ArrayList<>(methodsCount);
+            for (int i = 0; i < methodsCount; i++) {
+                classFile.position(classFile.position() + 2);
+                methodNames.add(utf8[classFile.getShort() & 0xFFFF]);
+                classFile.position(classFile.position() + 2);
+                skipAttributes(classFile);
+            }
+            return methodNames;
+        } catch (IOException | RuntimeException e) {
+            return null;
+        }
+    }
+
+    /**
+     * @return UTF8 entries of the constant pool indexed by their constant pool index or null if the constant pool
+     * contains the unknown tag
+     */
+    private static String[] readConstantPool(ByteBuffer classFile) {
+        int constantPoolCount = classFile.getShort() & 0xFFFF;
+        String[] utf8 = new String[constantPoolCount];
+
+        for (int i = 1; i < constantPoolCount; i++) {
+            int tag = classFile.get() & 0xFF;
+            switch (tag) {
+                case 1:
+                    int length = classFile.getShort() & 0xFFFF;
+                    utf8[i] = new String(classFile.array(), classFile.arrayOffset() + classFile.position(), length, StandardCharsets.UTF_8);
+                    classFile.position(classFile.position() + length);
+                    break;
+                case 7:
+                case 8:
+                case 16:
+                case 19:
+                case 20:
+                    classFile.position(classFile.position() + 2);
+                    break;
+                case 15:
+                    classFile.position(classFile.position() + 3);
+                    break;
+                case 3:
+                case 4:
+                case 9:
+                case 10:
+                case 11:
+                case 12:
+                case 17:
+                case 18:
+                    classFile.position(classFile.position() + 4);
+                    break;
+                case 5:
+                case 6:
+                    classFile.position(classFile.position() + 8);
+                    i++;
+                    break;
+                default:
+                    //Unknown constant pool tag of the newer class file format, the class is skipped
+                    return null;
+            }
+        }
+
+        return utf8;
+    }
+
+    private static void skipMembers(ByteBuffer classFile) {
+        int membersCount = classFile.getShort() & 0xFFFF;
+        for (int i = 0; i < membersCount; i++) {
+            // access_flags, name_index, descriptor_index
+            classFile.position(classFile.position() + 6);
+            skipAttributes(classFile);
+        }
+    }
+
+    private static void skipAttributes(ByteBuffer classFile) {
+        int attributesCount = classFile.getShort() & 0xFFFF;
+        for (int i = 0; i < attributesCount; i++) {
+            classFile.position(classFile.position() + 2);
+            int attributeLength = classFile.getInt();
+            classFile.position(classFile.position() + attributeLength);
+        }
+    }
+
+    private void skipAnnotationElements(ByteBuffer classFile) {
+        int pairsCount = classFile.getShort() & 0xFFFF;
+        for (int i = 0; i < pairsCount; i++) {
+            classFile.position(classFile.position() + 2);
+            skipElementValue(classFile);
+        }
+    }
+
+    private void skipElementValue(ByteBuffer classFile) {
+        char tag = (char) (classFile.get() & 0xFF);
+        switch (tag) {
+            case 'e':
+                classFile.position(classFile.position() + 4);
+                break;
+            case '@':
+                classFile.position(classFile.position() + 2);
+                skipAnnotationElements(classFile);
+                break;
+            case '[':
+                int valuesCount = classFile.getShort() & 0xFFFF;
+                for (int i = 0; i < valuesCount; i++) {
+                    skipElementValue(classFile);
+                }
+                break;
+            default:
+                classFile.position(classFile.position() + 2);
+        }
+    }
+
+    private String classNameFromResource(String resourceName) {
+        return resourceName.substring(0, resourceName.length() - CLASS_FILE_EXTENSION.length()).replace('/', '.');
+    }
+
+    private Path toPath(URL url) {
+        try {
+            return Paths.get(url.toURI());
+        } catch (URISyntaxException e) {
+            throw new BeanMetadataException("Wrong package location " + url, e);
+        }
+    }
+
+    private static ClassLoader defaultClassLoader() {
+        ClassLoader contextClassLoader = Thread.currentThread().getContextClassLoader();
+        return contextClassLoader != null ? contextClassLoader : ClassPathScanner.class.getClassLoader();
+    }
+}
@@ -64,6 +64,11 @@ public class ClassUtil {
         return c1.equals(c2);
     }
 
+    public static Class<?> boxed(Class<?> type) {
+        Class<?> boxed = PRIMITIVE_TO_BOXED_MAP.get(type);
+        return boxed != null ? boxed : type;
+    }
+
     private ClassUtil() {
 
     }
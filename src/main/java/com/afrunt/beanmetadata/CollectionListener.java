@@ -0,0 +1,36 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package com.afrunt.beanmetadata;
+
+/**
+ * Receives the timings of the metadata collection phases. Listeners are invoked synchronously from the collecting
+ * thread, so they should be thread-safe if the metadata is collected in parallel
+ *
+ * @author Andrii Frunt
+ */
+@FunctionalInterface
+public interface CollectionListener {
+    /**
+     * @param beanClass     the class being processed. For the field phases it is the class declaring the getter
+     * @param phase         the finished phase
+     * @param durationNanos duration of the phase
+     * @param count         number of processed items, see {@link CollectionPhase}
+     */
+    void onPhase(Class<?> beanClass, CollectionPhase phase, long durationNanos, int count);
+}
@@ -0,0 +1,59 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package com.afrunt.beanmetadata;
+
+/**
+ * Phases of the metadata collection reported to the {@link CollectionListener}
+ *
+ * @author Andrii Frunt
+ */
+public enum CollectionPhase {
+    /**
+     * Invocation of {@link MetadataCollector#skipClass(Class)}
+     */
+    SKIP_CLASS,
+    /**
+     * Collection of the class metadata together with its superclasses, that were not collected before
+     */
+    HIERARCHY,
+    /**
+     * Scanning of the declared methods of the class for getters. The count is the number of getters found
+     */
+    GETTER_SCAN,
+    /**
+     * Removal of the inherited annotations of the bean or field. The count is the number of declared annotations
+     */
+    REMOVE_ANNOTATIONS,
+    /**
+     * Addition of the declared annotations of the bean or field. The count is the number of declared annotations
+     */
+    ADD_ANNOTATIONS,
+    /**
+     * Lookup of the setter for the getter. The count is 1 if the setter was found
+     */
+    SETTER_RESOLUTION,
+    /**
+     * Invocation of {@link MetadataCollector#validateBeanMetadata(BeanMetadata)}
+     */
+    BEAN_VALIDATION,
+    /**
+     * Validation of all fields of the bean. The count is the number of validated fields
+     */
+    FIELD_VALIDATION
+}
@@ -0,0 +1,113 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package com.afrunt.beanmetadata;
+
+import java.lang.annotation.Annotation;
+import java.util.*;
+
+/**
+ * Immutable map of annotations backed by two arrays. The annotation types are compared by identity, which is enough
+ * for the handful of annotations usually present on the bean or the field
+ *
+ * @author Andrii Frunt
+ */
+final class CompactAnnotationsMap extends AbstractMap<Class<? extends Annotation>, Annotation> {
+    private static final CompactAnnotationsMap EMPTY = new CompactAnnotationsMap(new Class<?>[0], new Annotation[0]);
+
+    private final Class<?>[] annotationTypes;
+    private final Annotation[] annotations;
+
+    private CompactAnnotationsMap(Class<?>[] annotationTypes, Annotation[] annotations) {
+        this.annotationTypes = annotationTypes;
+        this.annotations = annotations;
+    }
+
+    static Map<Class<? extends Annotation>, Annotation> of(Map<Class<? extends Annotation>, Annotation> annotationsMap) {
+        if (annotationsMap instanceof CompactAnnotationsMap) {
+            return annotationsMap;
+        }
+
+        if (annotationsMap.isEmpty()) {
+            return EMPTY;
+        }
+
+        Class<?>[] annotationTypes = new Class<?>[annotationsMap.size()];
+        Annotation[] annotations = new Annotation[annotationTypes.length];
+        int i = 0;
+        for (Map.Entry<Class<? extends Annotation>, Annotation> entry : annotationsMap.entrySet()) {
+            annotationTypes[i] = entry.getKey();
+            annotations[i] = entry.getValue();
+            i++;
+        }
+        return new CompactAnnotationsMap(annotationTypes, annotations);
+    }
+
+    @Override
+    public Annotation get(Object key) {
+        for (int i = 0; i < annotationTypes.length; i++) {
+            if (annotationTypes[i] == key) {
+                return annotations[i];
+            }
+        }
+        return null;
+    }
+
+    @Override
+    public boolean containsKey(Object key) {
+        return get(key) != null;
+    }
+
+    @Override
+    public int size() {
+        return annotationTypes.length;
+    }
+
+    @Override
+    public Set<Entry<Class<? extends Annotation>, Annotation>> entrySet() {
+        return new AbstractSet<Entry<Class<? extends Annotation>, Annotation>>() {
+            @Override
+            public Iterator<Entry<Class<? extends Annotation>, Annotation>> iterator() {
+                return new Iterator<Entry<Class<? extends Annotation>, Annotation>>() {
+                    private int index;
+
+                    @Override
+                    public boolean hasNext() {
+                        return index < annotationTypes.length;
+                    }
+
+                    @Override
+                    @SuppressWarnings("unchecked")
+                    public Entry<Class<? extends Annotation>, Annotation> next() {
+                        if (!hasNext()) {
+                            throw new NoSuchElementException();
+                        }
+                        Class<? extends Annotation> annotationType = (Class<? extends Annotation>) annotationTypes[index];
+                        Annotation annotation = annotations[index++];
+                        return new SimpleImmutableEntry<>(annotationType, annotation);
+                    }
+                };
+            }
+
+            @Override
+            public int size() {
+                return annotationTypes.length;
+            }
+        };
+    }
+}
@@ -0,0 +1,178 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package com.afrunt.beanmetadata;
+
+import java.lang.invoke.*;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.util.function.BiConsumer;
+import java.util.function.Function;
+
+/**
+ * Creates the functional accessors of the fields. The accessors are generated with {@link LambdaMetafactory} when
+ * the bean class is visible from this library, otherwise the method handles or reflection are used
+ *
+ * @author Andrii Frunt
+ */
+final class FieldAccessors {
+    private static final MethodHandles.Lookup LOOKUP = MethodHandles.lookup();
+
+    @SuppressWarnings("unchecked")
+    static Function<Object, Object> getterFunction(Method getter, MethodHandle getterHandle) {
+        if (getter == null) {
+            return null;
+        }
+
+        if (isVisible(getter)) {
+            try {
+                MethodHandle implementation = LOOKUP.unreflect(getter);
+                CallSite callSite = LambdaMetafactory.metafactory(LOOKUP, "apply",
+                        MethodType.methodType(Function.class),
+                        MethodType.methodType(Object.class, Object.class),
+                        implementation,
+                        MethodType.methodType(ClassUtil.boxed(getter.getReturnType()), getter.getDeclaringClass()));
+                return (Function<Object, Object>) callSite.getTarget().invoke();
+            } catch (Throwable e) {
+                //Fall back to the method handle or reflection
+            }
+        }
+
+        if (getterHandle != null) {
+            return bean -> {
+                try {
+                    return (Object) getterHandle.invokeExact(bean);
+                } catch (RuntimeException | Error e) {
+                    throw e;
+                } catch (Throwable e) {
+                    throw new BeanMetadataException("Error during method invocation " + getter, e);
+                }
+            };
+        }
+
+        return bean -> invoke(getter, bean);
+    }
+
+    @SuppressWarnings("unchecked")
+    static BiConsumer<Object, Object> setterFunction(Method setter, MethodHandle setterHandle) {
+        if (setter == null) {
+            return null;
+        }
+
+        if (isVisible(setter)) {
+            try {
+                MethodHandle implementation = LOOKUP.unreflect(setter);
+                CallSite callSite = LambdaMetafactory.metafactory(LOOKUP, "accept",
+                        MethodType.methodType(BiConsumer.class),
+                        MethodType.methodType(void.class, Object.class, Object.class),
+                        implementation,
+                        MethodType.methodType(void.class, setter.getDeclaringClass(), ClassUtil.boxed(setter.getParameterTypes()[0])));
+                return (BiConsumer<Object, Object>) callSite.getTarget().invoke();
+            } catch (Throwable e) {
+                //Fall back to the method handle or reflection
+            }
+        }
+
+        if (setterHandle != null) {
+            return (bean, value) -> {
+                try {
+                    setterHandle.invokeExact(bean, value);
+                } catch (RuntimeException | Error e) {
+                    throw e;
+                } catch (Throwable e) {
+                    throw new BeanMetadataException("Error during method invocation " + setter, e);
+                }
+            };
+        }
+
+        return (bean, value) -> invoke(setter, bean, value);
+    }
+
+    /**
+     * @return public method handle adapted to the given type or null if the method is not accessible through the method
+     * handles
+     */
+    static MethodHandle methodHandle(Method method, MethodType type) {
+        if (method == null) {
+            return null;
+        }
+
+        try {
+            return MethodHandles.publicLookup().unreflect(method).asType(type);
+        } catch (IllegalAccessException | RuntimeException e) {
+            //Method is not accessible, reflection will be used
+            return null;
+        }
+    }
+
+    private static Object invoke(Method method, Object instance, Object... params) {
+        try {
+            return method.invoke(instance, params);
+        } catch (IllegalAccessException | InvocationTargetException e) {
+            throw new BeanMetadataException("Error during method invocation " + method, e);
+        }
+    }
+
+    /**
+     * The generated lambda class is defined in the class loader and the package of this library, so all classes of the
+     * method signature should be public and resolvable from it
+     */
+    private static boolean isVisible(Method method) {
+        if (method.getParameterCount() > 1 || !isVisible(method.getDeclaringClass()) || !isVisible(method.getReturnType())) {
+            return false;
+        }
+
+        for (Class<?> parameterType : method.getParameterTypes()) {
+            if (!isVisible(parameterType)) {
+                return false;
+            }
+        }
+
+        return Modifier.isPublic(method.getModifiers())
+                && Modifier.isPublic(method.getDeclaringClass().getModifiers())
+                && !Modifier.isStatic(method.getModifiers());
+    }
+
+    private static boolean isVisible(Class<?> cl) {
+        while (cl.isArray()) {
+            cl = cl.getComponentType();
+        }
+
+        if (cl.isPrimitive()) {
+            return true;
+        }
+
+        for (Class<?> c = cl; c != null; c = c.getEnclosingClass()) {
+            if (!Modifier.isPublic(c.getModifiers())) {
+                //The generated lambda cannot cast to the type, that is not public
+                return false;
+            }
+        }
+
+        try {
+            return Class.forName(cl.getName(), false, FieldAccessors.class.getClassLoader()) == cl;
+        } catch (ClassNotFoundException | LinkageError e) {
+            return false;
+        }
+    }
+
+    private FieldAccessors() {
+
+    }
+}
@@ -19,21 +19,41 @@
 package com.afrunt.beanmetadata;
 
 import java.lang.annotation.Annotation;
-import java.lang.reflect.InvocationTargetException;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodType;
+import java.lang.ref.WeakReference;
 import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.EnumSet;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.function.BiConsumer;
+import java.util.function.Function;
 
 /**
  * @author Andrii Frunt
  */
 public class FieldMetadata implements Annotated, Typed {
+    private static final MethodType GETTER_TYPE = MethodType.methodType(Object.class, Object.class);
+    private static final MethodType SETTER_TYPE = MethodType.methodType(void.class, Object.class, Object.class);
+    private static final EnumSet<TypeKind> INT_KINDS = EnumSet.of(TypeKind.BYTE, TypeKind.SHORT, TypeKind.INTEGER);
+    private static final EnumSet<TypeKind> LONG_KINDS = EnumSet.of(TypeKind.BYTE, TypeKind.SHORT, TypeKind.INTEGER, TypeKind.LONG);
+
     private String name;
     private Class<?> type;
+    private TypeKind typeKind = TypeKind.OTHER;
     private Method getter;
     private Method setter;
+    private volatile Handles getterHandles;
+    private volatile Handles setterHandles;
+    private volatile Function<Object, Object> getterFunction;
+    private volatile BiConsumer<Object, Object> setterFunction;
     private String recordClassName;
     private Map<Class<? extends Annotation>, Annotation> annotationsMap = new HashMap<>();
+    private volatile boolean frozen;
+    private volatile List<WeakReference<BeanMetadata<?>>> annotationsListeners = Collections.emptyList();
 
     @Override
     public Map<Class<? extends Annotation>, Annotation> getAnnotationsMap() {
@@ -42,15 +62,41 @@ public class FieldMetadata implements Annotated, Typed {
 
     @Override
     public FieldMetadata setAnnotationsMap(Map<Class<? extends Annotation>, Annotation> annotationsMap) {
+        checkNotFrozen();
         this.annotationsMap = annotationsMap;
+        for (WeakReference<BeanMetadata<?>> listener : annotationsListeners) {
+            BeanMetadata<?> beanMetadata = listener.get();
+            if (beanMetadata != null) {
+                beanMetadata.fieldAnnotationsChanged();
+            }
+        }
         return this;
     }
 
+    /**
+     * Registers the bean, that should drop its index of the annotated fields on every change of the annotations. The
+     * field shared by several beans notifies all of them. The beans are referenced weakly
+     */
+    synchronized void addAnnotationsListener(BeanMetadata<?> beanMetadata) {
+        List<WeakReference<BeanMetadata<?>>> listeners = new ArrayList<>(annotationsListeners.size() + 1);
+        for (WeakReference<BeanMetadata<?>> listener : annotationsListeners) {
+            BeanMetadata<?> listeningBean = listener.get();
+            if (listeningBean == beanMetadata) {
+                return;
+            } else if (listeningBean != null) {
+                listeners.add(listener);
+            }
+        }
+        listeners.add(new WeakReference<>(beanMetadata));
+        annotationsListeners = listeners;
+    }
+
     public String getName() {
         return name;
     }
 
     public FieldMetadata setName(String name) {
+        checkNotFrozen();
         this.name = name;
         return this;
     }
@@ -59,8 +105,15 @@ public class FieldMetadata implements Annotated, Typed {
         return type;
     }
 
+    @Override
+    public TypeKind getTypeKind() {
+        return typeKind;
+    }
+
     public FieldMetadata setType(Class<?> type) {
+        checkNotFrozen();
         this.type = type;
+        this.typeKind = TypeKind.of(type);
         return this;
     }
 
@@ -69,19 +122,66 @@ public class FieldMetadata implements Annotated, Typed {
     }
 
     public FieldMetadata setGetter(Method getter) {
+        checkNotFrozen();
         this.getter = getter;
+        this.getterHandles = null;
+        this.getterFunction = null;
         return this;
     }
 
+    /**
+     * @return getter generated with {@link java.lang.invoke.LambdaMetafactory}, or backed by the method handle or
+     * reflection if the getter cannot be linked directly. The function is created on the first call
+     */
+    public Function<Object, Object> getGetterFunction() {
+        Function<Object, Object> function = getterFunction;
+        if (function == null && getter != null) {
+            function = FieldAccessors.getterFunction(getter, getGetterHandle());
+            getterFunction = function;
+        }
+        return function;
+    }
+
+    /**
+     * @return getter handle of type (Object)Object or null if the getter is not accessible through the method handles
+     */
+    public MethodHandle getGetterHandle() {
+        return getterHandles().handle;
+    }
+
     public Method getSetter() {
         return setter;
     }
 
     public FieldMetadata setSetter(Method setter) {
+        checkNotFrozen();
         this.setter = setter;
+        this.setterHandles = null;
+        this.setterFunction = null;
         return this;
     }
 
+    /**
+     * @return setter generated with {@link java.lang.invoke.LambdaMetafactory}, or backed by the method handle or
+     * reflection if the setter cannot be linked directly. The function is created on the first call
+     */
+    public BiConsumer<Object, Object> getSetterFunction() {
+        BiConsumer<Object, Object> function = setterFunction;
+        if (function == null && setter != null) {
+            function = FieldAccessors.setterFunction(setter, getSetterHandle());
+            setterFunction = function;
+        }
+        return function;
+    }
+
+    /**
+     * @return setter handle of type (Object,Object)void or null if the setter is not accessible through the method
+     * handles
+     */
+    public MethodHandle getSetterHandle() {
+        return setterHandles().handle;
+    }
+
     public boolean isReadOnly() {
         return setter == null;
     }
@@ -91,37 +191,263 @@ public class FieldMetadata implements Annotated, Typed {
     }
 
     public FieldMetadata setBeanClassName(String recordClassName) {
+        checkNotFrozen();
         this.recordClassName = recordClassName;
         return this;
     }
 
     public Object getValue(Object instance) {
         try {
-            return getGetter().invoke(instance);
-        } catch (IllegalAccessException | InvocationTargetException e) {
-            throw new BeanMetadataException("Error getting value from field " + this);
+            return getGetterFunction().apply(instance);
+        } catch (BeanMetadataException e) {
+            throw e;
+        } catch (RuntimeException e) {
+            throw new BeanMetadataException("Error getting value from field " + this, e);
         }
     }
 
     public <T> T applyValue(T instance, Object value) {
         if (!isReadOnly()) {
+            validateValue(value);
+
             try {
-                if (value == null && isPrimitive()) {
-                    throw new BeanMetadataException("Cannot apply null to primitive field" + this);
-                }
+                getSetterFunction().accept(instance, value);
+                return instance;
+            } catch (BeanMetadataException e) {
+                throw e;
+            } catch (RuntimeException e) {
+                throw new BeanMetadataException("Error applying value " + this, e);
+            }
+        } else {
+            throw new BeanMetadataException("Error applying value. Field is read-only " + this);
+        }
+    }
 
-                if (value != null && !typeIsAssignableFrom(value.getClass())) {
-                    throw new BeanMetadataException("Cannot apply field value. Types are incompatible. " + this);
-                }
+    /**
+     * @throws BeanMetadataException if the value of the field is not numeric or is wider than int, e.g. long, double
+     *                               or {@link java.math.BigDecimal}. Such values are never narrowed silently
+     */
+    public int getInt(Object instance) {
+        if (hasPrimitiveGetter(int.class)) {
+            try {
+                return (int) getterHandles().primitiveHandle.invokeExact(instance);
+            } catch (Throwable e) {
+                throw getValueException(e);
+            }
+        }
+        return integralValue(instance, INT_KINDS, int.class).intValue();
+    }
+
+    /**
+     * @throws BeanMetadataException if the value of the field is not numeric or is wider than long, e.g. double or
+     *                               {@link java.math.BigInteger}. Such values are never narrowed silently
+     */
+    public long getLong(Object instance) {
+        if (hasPrimitiveGetter(long.class)) {
+            try {
+                return (long) getterHandles().primitiveHandle.invokeExact(instance);
+            } catch (Throwable e) {
+                throw getValueException(e);
+            }
+        }
+        return integralValue(instance, LONG_KINDS, long.class).longValue();
+    }
+
+    public double getDouble(Object instance) {
+        if (hasPrimitiveGetter(double.class)) {
+            try {
+                return (double) getterHandles().primitiveHandle.invokeExact(instance);
+            } catch (Throwable e) {
+                throw getValueException(e);
+            }
+        }
+        return numericValue(instance).doubleValue();
+    }
+
+    public boolean getBoolean(Object instance) {
+        if (hasPrimitiveGetter(boolean.class)) {
+            try {
+                return (boolean) getterHandles().primitiveHandle.invokeExact(instance);
+            } catch (Throwable e) {
+                throw getValueException(e);
+            }
+        }
+
+        Object value = getValue(instance);
+        if (value instanceof Boolean) {
+            return (Boolean) value;
+        } else {
+            throw new BeanMetadataException("Field value is not boolean " + this);
+        }
+    }
 
-                getSetter().invoke(instance, value);
+    public <T> T setInt(T instance, int value) {
+        if (hasPrimitiveSetter(int.class)) {
+            try {
+                setterHandles().primitiveHandle.invokeExact(instance, value);
+                return instance;
+            } catch (Throwable e) {
+                throw applyValueException(e);
+            }
+        }
+        return applyValue(instance, value);
+    }
 
+    public <T> T setLong(T instance, long value) {
+        if (hasPrimitiveSetter(long.class)) {
+            try {
+                setterHandles().primitiveHandle.invokeExact(instance, value);
                 return instance;
-            } catch (IllegalAccessException | InvocationTargetException e) {
-                throw new BeanMetadataException("Error applying value " + this, e);
+            } catch (Throwable e) {
+                throw applyValueException(e);
             }
+        }
+        return applyValue(instance, value);
+    }
+
+    public <T> T setDouble(T instance, double value) {
+        if (hasPrimitiveSetter(double.class)) {
+            try {
+                setterHandles().primitiveHandle.invokeExact(instance, value);
+                return instance;
+            } catch (Throwable e) {
+                throw applyValueException(e);
+            }
+        }
+        return applyValue(instance, value);
+    }
+
+    public <T> T setBoolean(T instance, boolean value) {
+        if (hasPrimitiveSetter(boolean.class)) {
+            try {
+                setterHandles().primitiveHandle.invokeExact(instance, value);
+                return instance;
+            } catch (Throwable e) {
+                throw applyValueException(e);
+            }
+        }
+        return applyValue(instance, value);
+    }
+
+    private boolean hasPrimitiveGetter(Class<?> primitiveType) {
+        MethodHandle primitiveHandle = getterHandles().primitiveHandle;
+        return primitiveHandle != null && primitiveHandle.type().returnType() == primitiveType;
+    }
+
+    private boolean hasPrimitiveSetter(Class<?> primitiveType) {
+        MethodHandle primitiveHandle = setterHandles().primitiveHandle;
+        return primitiveHandle != null && primitiveHandle.type().parameterType(1) == primitiveType;
+    }
+
+    private Handles getterHandles() {
+        Handles handles = getterHandles;
+        if (handles == null) {
+            Method getter = this.getter;
+            handles = getter == null ? Handles.NONE : new Handles(
+                    FieldAccessors.methodHandle(getter, GETTER_TYPE),
+                    getter.getReturnType().isPrimitive()
+                            ? FieldAccessors.methodHandle(getter, MethodType.methodType(getter.getReturnType(), Object.class))
+                            : null);
+            getterHandles = handles;
+        }
+        return handles;
+    }
+
+    private Handles setterHandles() {
+        Handles handles = setterHandles;
+        if (handles == null) {
+            Method setter = this.setter;
+            Class<?> valueType = setter == null ? null : setter.getParameterTypes()[0];
+            handles = setter == null ? Handles.NONE : new Handles(
+                    FieldAccessors.methodHandle(setter, SETTER_TYPE),
+                    valueType.isPrimitive()
+                            ? FieldAccessors.methodHandle(setter, MethodType.methodType(void.class, Object.class, valueType))
+                            : null);
+            setterHandles = handles;
+        }
+        return handles;
+    }
+
+    private Number numericValue(Object instance) {
+        Object value = getValue(instance);
+        if (value instanceof Number) {
+            return (Number) value;
         } else {
-            throw new BeanMetadataException("Error applying value. Field is read-only " + this);
+            throw new BeanMetadataException("Field value is not numeric " + this);
+        }
+    }
+
+    private Number integralValue(Object instance, EnumSet<TypeKind> allowedKinds, Class<?> primitiveType) {
+        Number value = numericValue(instance);
+        //The declared type decides, unless it is too generic, e.g. Number or Object
+        TypeKind kind = typeKind.isNumeric() && typeKind != TypeKind.NUMBER ? typeKind : TypeKind.of(value.getClass());
+        if (!allowedKinds.contains(kind)) {
+            throw new BeanMetadataException("Field value of kind " + kind + " cannot be read as " + primitiveType + " without narrowing " + this);
+        }
+        return value;
+    }
+
+    private RuntimeException getValueException(Throwable e) {
+        return invocationException("Error getting value from field " + this, e);
+    }
+
+    private RuntimeException applyValueException(Throwable e) {
+        return invocationException("Error applying value " + this, e);
+    }
+
+    private static RuntimeException invocationException(String message, Throwable e) {
+        if (e instanceof Error) {
+            throw (Error) e;
+        } else if (e instanceof BeanMetadataException) {
+            return (BeanMetadataException) e;
+        } else {
+            return new BeanMetadataException(message, e);
+        }
+    }
+
+    /**
+     * Makes this field metadata immutable. Any further modification throws {@link BeanMetadataException}
+     */
+    public FieldMetadata freeze() {
+        if (!frozen) {
+            compactAnnotations();
+            frozen = true;
+        }
+        return this;
+    }
+
+    public boolean isFrozen() {
+        return frozen;
+    }
+
+    private void checkNotFrozen() {
+        if (frozen) {
+            throw new BeanMetadataException("Field metadata is frozen " + this);
+        }
+    }
+
+    public void validateValue(Object value) {
+        if (value == null && isPrimitive()) {
+            throw new BeanMetadataException("Cannot apply null to primitive field" + this);
+        }
+
+        if (value != null && !typeIsAssignableFrom(value.getClass())) {
+            throw new BeanMetadataException("Cannot apply field value. Types are incompatible. " + this);
+        }
+    }
+
+    /**
+     * Method handles of the getter or the setter, resolved on the first access
+     */
+    private static final class Handles {
+        private static final Handles NONE = new Handles(null, null);
+
+        private final MethodHandle handle;
+        private final MethodHandle primitiveHandle;
+
+        private Handles(MethodHandle handle, MethodHandle primitiveHandle) {
+            this.handle = handle;
+            this.primitiveHandle = primitiveHandle;
         }
     }
 
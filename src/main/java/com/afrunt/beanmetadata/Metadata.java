@@ -19,36 +19,129 @@
 package com.afrunt.beanmetadata;
 
 import java.lang.annotation.Annotation;
-import java.util.HashSet;
-import java.util.Set;
-import java.util.stream.Collectors;
+import java.nio.file.Path;
+import java.util.*;
 
 /**
  * @author Andrii Frunt
  */
 public class Metadata<BM extends BeanMetadata<FM>, FM extends FieldMetadata> {
-    private Set<BM> beansMetadata = new HashSet<>();
+    private Set<BM> beansMetadata = Collections.emptySet();
+    private Map<Class<?>, BM> beansMetadataByType = Collections.emptyMap();
+    private Map<Class<? extends Annotation>, Set<BM>> beansMetadataByAnnotation = Collections.emptyMap();
+    private volatile ClassValue<Optional<BM>> resolvedBeansMetadata = newResolvedBeansMetadata();
+    private volatile boolean frozen;
 
+    /**
+     * @return unmodifiable set of the beans. Use {@link #setBeansMetadata(Set)} to change the beans
+     */
     public Set<BM> getBeansMetadata() {
         return beansMetadata;
     }
 
     public Metadata<BM, FM> setBeansMetadata(Set<BM> beansMetadata) {
-        this.beansMetadata = beansMetadata;
+        if (frozen) {
+            throw new BeanMetadataException("Metadata is frozen");
+        }
+        indexBeansMetadata(beansMetadata);
         return this;
     }
 
+    /**
+     * @return unmodifiable set of the beans annotated with the given annotation at the moment, when the beans were set
+     */
     public Set<BM> getAnnotatedWith(Class<? extends Annotation> annotationType) {
-        return getBeansMetadata().stream()
-                .filter(b -> b.isAnnotatedWith(annotationType))
-                .collect(Collectors.toSet());
+        return beansMetadataByAnnotation.getOrDefault(annotationType, Collections.emptySet());
+    }
+
+    /**
+     * Freezes the metadata of all beans and makes the set of beans unmodifiable. The frozen metadata can be safely
+     * shared between threads. The collector does not return the frozen beans from its cache anymore.
+     * <p>
+     * The beans are frozen in place, not copied. Other {@link Metadata} objects, that were built earlier from the cache
+     * of the same collector, hold the same bean instances, so their beans become frozen as well, while the sets of
+     * beans of these objects stay modifiable. Disable the cache of the collector to get independent bean instances
+     */
+    public synchronized Metadata<BM, FM> freeze() {
+        if (!frozen) {
+            beansMetadata.forEach(BeanMetadata::freeze);
+            indexBeansMetadata(beansMetadata);
+            frozen = true;
+        }
+        return this;
+    }
+
+    public boolean isFrozen() {
+        return frozen;
+    }
+
+    public void writeSnapshot(Path file) {
+        MetadataSnapshot.of(this).write(file);
     }
 
     public BM getBeanMetadata(Class<?> beanClass) {
-        return getBeansMetadata().stream()
-                .filter(bm -> bm.typeIs(beanClass))
-                .findFirst()
-                .orElse(null);
+        return beansMetadataByType.get(beanClass);
+    }
+
+    /**
+     * @return metadata of the given class or of its nearest supertype, or null if the class has no registered
+     * supertypes. The superclass wins over the interfaces of the same class. The result is cached per class
+     */
+    public BM resolveFor(Class<?> beanClass) {
+        return resolvedBeansMetadata.get(beanClass).orElse(null);
+    }
+
+    private BM findNearestBeanMetadata(Class<?> beanClass) {
+        Deque<Class<?>> types = new ArrayDeque<>();
+        Set<Class<?>> visited = new HashSet<>();
+        types.add(beanClass);
+
+        while (!types.isEmpty()) {
+            Class<?> type = types.poll();
+            if (!visited.add(type)) {
+                continue;
+            }
+
+            BM beanMetadata = beansMetadataByType.get(type);
+            if (beanMetadata != null) {
+                return beanMetadata;
+            }
+
+            if (type.getSuperclass() != null) {
+                types.add(type.getSuperclass());
+            }
+            types.addAll(Arrays.asList(type.getInterfaces()));
+        }
+
+        return null;
+    }
+
+    private ClassValue<Optional<BM>> newResolvedBeansMetadata() {
+        return new ClassValue<Optional<BM>>() {
+            @Override
+            protected Optional<BM> computeValue(Class<?> type) {
+                return Optional.ofNullable(findNearestBeanMetadata(type));
+            }
+        };
+    }
+
+    private void indexBeansMetadata(Set<BM> beansMetadata) {
+        Map<Class<?>, BM> byType = new HashMap<>();
+        Map<Class<? extends Annotation>, Set<BM>> byAnnotation = new HashMap<>();
+
+        for (BM bm : beansMetadata) {
+            byType.putIfAbsent(bm.getType(), bm);
+            for (Class<? extends Annotation> annotationType : bm.getAnnotationsMap().keySet()) {
+                byAnnotation.computeIfAbsent(annotationType, a -> new LinkedHashSet<>()).add(bm);
+            }
+        }
+
+        byAnnotation.replaceAll((annotationType, beans) -> Collections.unmodifiableSet(beans));
+
+        this.beansMetadata = Collections.unmodifiableSet(new LinkedHashSet<>(beansMetadata));
+        this.beansMetadataByType = byType;
+        this.beansMetadataByAnnotation = byAnnotation;
+        this.resolvedBeansMetadata = newResolvedBeansMetadata();
     }
 
 }
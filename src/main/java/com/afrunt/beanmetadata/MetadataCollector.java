@@ -18,12 +18,20 @@
  */
 package com.afrunt.beanmetadata;
 
+import com.afrunt.beanmetadata.annotation.GenerateBeanAccessor;
 import com.afrunt.beanmetadata.annotation.RemoveInheritedAnnotations;
 
 import java.lang.annotation.Annotation;
 import java.lang.reflect.Method;
 import java.lang.reflect.Modifier;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
 import java.util.stream.Collectors;
 
 import static java.util.Optional.ofNullable;
@@ -32,23 +40,43 @@ import static java.util.Optional.ofNullable;
  * @author Andrii Frunt
  */
 public abstract class MetadataCollector<M extends Metadata<BM, FM>, BM extends BeanMetadata<FM>, FM extends FieldMetadata> {
+    private static final long NOT_MEASURED = Long.MIN_VALUE;
+
+    private volatile boolean cacheEnabled = true;
+    private volatile boolean generatedAccessorsEnabled = true;
+    private volatile boolean runtimeAccessorsEnabled = true;
+    private volatile boolean lazyFieldsEnabled;
+    private volatile ClassValue<Optional<BM>> beanMetadataCache = newBeanMetadataCache();
+    private volatile ClassValue<BM> hierarchyMetadataCache = newHierarchyMetadataCache();
+    private final Set<Class<?>> cachedClasses = Collections.newSetFromMap(Collections.synchronizedMap(new WeakHashMap<>()));
+    private final ClassValue<Optional<Map<Method, Method>>> generatedFieldsCache = new ClassValue<Optional<Map<Method, Method>>>() {
+        @Override
+        protected Optional<Map<Method, Method>> computeValue(Class<?> type) {
+            return ofNullable(resolveGeneratedFields(type));
+        }
+    };
+    /**
+     * Declaration index of the methods, read once per class from the class file
+     */
+    private final ClassValue<Optional<Map<String, Integer>>> declarationOrderCache = new ClassValue<Optional<Map<String, Integer>>>() {
+        @Override
+        protected Optional<Map<String, Integer>> computeValue(Class<?> type) {
+            return ofNullable(resolveDeclarationOrder(type));
+        }
+    };
+    private final List<CollectionListener> collectionListeners = new CopyOnWriteArrayList<>();
 
     public M collectMetadata(Collection<Class<?>> classes) {
         M metadata = newMetadata();
 
         Set<BM> beansMetadata = classes.stream()
-                .filter(c -> !skipClass(c))
+                .filter(c -> !isSkippedClass(c))
                 .map(this::collectBeanMetadata)
                 .filter(Objects::nonNull)
                 .filter(bm -> !skipBeanMetadata(bm))
                 .collect(Collectors.toSet());
 
-        beansMetadata.forEach(this::validateBeanMetadata);
-
-        beansMetadata.stream()
-                .map(BeanMetadata::getFieldsMetadata)
-                .flatMap(List::stream)
-                .forEach(this::validateFieldMetadata);
+        validateBeansMetadata(beansMetadata);
 
         metadata.setBeansMetadata(
                 beansMetadata
@@ -58,22 +86,552 @@ public abstract class MetadataCollector<M extends Metadata<BM, FM>, BM extends B
         return metadata;
     }
 
-    public BM collectBeanMetadata(Class<?> cl) {
-        if (skipClass(cl)) {
+    /**
+     * Collects the metadata of the classes found in the packages and their subpackages. Only the classes annotated with
+     * any of {@link #scannedAnnotationTypes()} are loaded
+     */
+    public M collectMetadata(String... packages) {
+        return collectMetadata(new ClassPathScanner(scanClassLoader()).scan(scannedAnnotationTypes(), packages));
+    }
+
+    /**
+     * Restores the metadata of the unchanged classes from the snapshot file and collects only the classes, that are
+     * missing in the snapshot or were changed. The snapshot written by another collector or the snapshot, that cannot
+     * be read, is not used. The snapshot file is rewritten if any class was collected or the snapshot contained the
+     * classes, that were not requested
+     */
+    public M collectMetadata(Collection<Class<?>> classes, Path snapshotFile) {
+        String collectorIdentity = snapshotIdentity();
+        if (collectorIdentity == null) {
+            return collectMetadata(classes);
+        }
+
+        MetadataSnapshot snapshot = readSnapshot(snapshotFile);
+        boolean snapshotChanged = snapshot == null || !collectorIdentity.equals(snapshot.getCollectorIdentity());
+        if (snapshotChanged) {
+            snapshot = new MetadataSnapshot(collectorIdentity);
+        }
+
+        MetadataSnapshot.Fingerprints fingerprints = new MetadataSnapshot.Fingerprints();
+        List<BM> collectedBeansMetadata = new ArrayList<>();
+        M metadata = collectMetadata(classes, snapshot, fingerprints, collectedBeansMetadata);
+
+        for (BM beanMetadata : collectedBeansMetadata) {
+            snapshot.putBeanSnapshot(beanMetadata, fingerprints);
+        }
+
+        Set<String> classNames = metadata.getBeansMetadata().stream()
+                .map(BeanMetadata::getTypeName)
+                .collect(Collectors.toSet());
+
+        if (snapshot.retainBeans(classNames) || snapshotChanged || !collectedBeansMetadata.isEmpty()) {
+            snapshot.write(snapshotFile);
+        }
+
+        return metadata;
+    }
+
+    private MetadataSnapshot readSnapshot(Path snapshotFile) {
+        if (!Files.isRegularFile(snapshotFile)) {
+            return null;
+        }
+
+        try {
+            return MetadataSnapshot.read(snapshotFile);
+        } catch (BeanMetadataException e) {
+            //Truncated, corrupted or outdated snapshot is rebuilt
             return null;
         }
+    }
+
+    public M collectMetadata(Collection<Class<?>> classes, MetadataSnapshot snapshot) {
+        return collectMetadata(classes, snapshot, new MetadataSnapshot.Fingerprints(), new ArrayList<>());
+    }
+
+    private M collectMetadata(Collection<Class<?>> classes, MetadataSnapshot snapshot, MetadataSnapshot.Fingerprints fingerprints, List<BM> collectedBeansMetadata) {
+        Set<BM> beansMetadata = new LinkedHashSet<>();
+
+        for (Class<?> cl : classes) {
+            if (isSkippedClass(cl)) {
+                continue;
+            }
+
+            BM beanMetadata = snapshot.isUpToDate(cl, fingerprints) ? restoreBeanMetadata(cl, snapshot) : null;
+            boolean collected = beanMetadata == null;
+
+            if (collected) {
+                beanMetadata = collectBeanMetadata(cl);
+            }
+
+            if (beanMetadata != null && !skipBeanMetadata(beanMetadata)) {
+                beansMetadata.add(beanMetadata);
+                if (collected) {
+                    collectedBeansMetadata.add(beanMetadata);
+                }
+            }
+        }
+
+        validateBeansMetadata(beansMetadata);
+
+        M metadata = newMetadata();
+        metadata.setBeansMetadata(beansMetadata);
+        return metadata;
+    }
+
+    public M collectMetadataInParallel(Collection<Class<?>> classes) {
+        return collectMetadata(classes, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Collects and validates the metadata of every class as a separate task of the given executor. The result contains
+     * the same beans as the sequential {@link #collectMetadata(Collection)}, ordered as the incoming classes.
+     * Overridden hooks of the collector must be thread-safe to be used in this mode
+     */
+    public M collectMetadata(Collection<Class<?>> classes, Executor executor) {
+        List<CompletableFuture<BM>> futures = classes.stream()
+                .map(c -> CompletableFuture.supplyAsync(() -> collectValidatedBeanMetadata(c), executor))
+                .collect(Collectors.toList());
+
+        Set<BM> beansMetadata = new LinkedHashSet<>();
+        for (CompletableFuture<BM> future : futures) {
+            BM beanMetadata = joinBeanMetadata(future);
+            if (beanMetadata != null) {
+                beansMetadata.add(beanMetadata);
+            }
+        }
+
+        M metadata = newMetadata();
+        metadata.setBeansMetadata(beansMetadata);
+        return metadata;
+    }
+
+    /**
+     * @return cached metadata of the class. The cached metadata frozen by the caller is not returned anymore, the
+     * class is collected again instead
+     */
+    public BM collectBeanMetadata(Class<?> cl) {
+        if (cacheEnabled) {
+            ClassValue<Optional<BM>> cache = beanMetadataCache;
+            BM beanMetadata = cache.get(cl).orElse(null);
+            if (beanMetadata != null && beanMetadata.isFrozen()) {
+                cache.remove(cl);
+                beanMetadata = cache.get(cl).orElse(null);
+            }
+            return beanMetadata;
+        } else {
+            return doCollectBeanMetadata(cl);
+        }
+    }
+
+    public boolean isCacheEnabled() {
+        return cacheEnabled;
+    }
+
+    public MetadataCollector<M, BM, FM> setCacheEnabled(boolean cacheEnabled) {
+        this.cacheEnabled = cacheEnabled;
+        return this;
+    }
+
+    public boolean isGeneratedAccessorsEnabled() {
+        return generatedAccessorsEnabled;
+    }
+
+    /**
+     * Enables the lookup of the {@link BeanAccessor} generated by the
+     * {@link com.afrunt.beanmetadata.processor.BeanAccessorProcessor}. The beans without generated accessor are
+     * accessed through reflection
+     */
+    public MetadataCollector<M, BM, FM> setGeneratedAccessorsEnabled(boolean generatedAccessorsEnabled) {
+        this.generatedAccessorsEnabled = generatedAccessorsEnabled;
+        return this;
+    }
+
+    public boolean isRuntimeAccessorsEnabled() {
+        return runtimeAccessorsEnabled;
+    }
+
+    /**
+     * Enables the generation of the {@link BeanAccessor} at runtime for the public beans without accessor generated
+     * at compile time
+     */
+    public MetadataCollector<M, BM, FM> setRuntimeAccessorsEnabled(boolean runtimeAccessorsEnabled) {
+        this.runtimeAccessorsEnabled = runtimeAccessorsEnabled;
+        return this;
+    }
+
+    public MetadataCollector<M, BM, FM> addCollectionListener(CollectionListener listener) {
+        collectionListeners.add(listener);
+        return this;
+    }
+
+    public MetadataCollector<M, BM, FM> removeCollectionListener(CollectionListener listener) {
+        collectionListeners.remove(listener);
+        return this;
+    }
+
+    public boolean isLazyFieldsEnabled() {
+        return lazyFieldsEnabled;
+    }
+
+    /**
+     * In the lazy mode only the annotations of the bean are collected eagerly. The getters are scanned and the field
+     * metadata is collected and validated on the first access to the fields of the bean metadata
+     */
+    public MetadataCollector<M, BM, FM> setLazyFieldsEnabled(boolean lazyFieldsEnabled) {
+        this.lazyFieldsEnabled = lazyFieldsEnabled;
+        return this;
+    }
+
+    /**
+     * Drops the cached metadata of the given class and of its subclasses, that inherited the metadata of the class, so
+     * the next lookup collects them again
+     */
+    public MetadataCollector<M, BM, FM> invalidate(Class<?> cl) {
+        List<Class<?>> invalidatedClasses;
+        synchronized (cachedClasses) {
+            invalidatedClasses = cachedClasses.stream()
+                    .filter(cl::isAssignableFrom)
+                    .collect(Collectors.toList());
+            cachedClasses.removeAll(invalidatedClasses);
+        }
+        invalidatedClasses.add(cl);
 
-        BM tm = newBeanMetadata();
-        tm.setType(cl);
+        for (Class<?> invalidatedClass : invalidatedClasses) {
+            beanMetadataCache.remove(invalidatedClass);
+            hierarchyMetadataCache.remove(invalidatedClass);
+        }
+        return this;
+    }
 
-        List<Class<?>> hierarchy = classHierarchy(cl);
-        BM beanMetadata = collectBeanMetadataFromClassHierarchy(hierarchy, tm);
+    /**
+     * Drops the cached metadata of all classes collected by this collector
+     */
+    public MetadataCollector<M, BM, FM> invalidateAll() {
+        beanMetadataCache = newBeanMetadataCache();
+        hierarchyMetadataCache = newHierarchyMetadataCache();
+        cachedClasses.clear();
+        return this;
+    }
+
+    protected BM doCollectBeanMetadata(Class<?> cl) {
+        if (isSkippedClass(cl)) {
+            return null;
+        }
+
+        BM beanMetadata = lazyFieldsEnabled ? collectLazyBeanMetadata(cl) : copyBeanMetadata(hierarchyMetadata(cl));
 
         if (skipBeanMetadata(beanMetadata)) {
             return null;
+        }
+
+        if (!lazyFieldsEnabled) {
+            beanMetadata.setBeanAccessor(createBeanAccessor(cl, beanMetadata.getFieldsMetadata()));
+        }
+        return beanMetadata;
+    }
+
+    private BM collectValidatedBeanMetadata(Class<?> cl) {
+        if (isSkippedClass(cl)) {
+            return null;
+        }
+
+        BM beanMetadata = collectBeanMetadata(cl);
+
+        if (beanMetadata == null || skipBeanMetadata(beanMetadata)) {
+            return null;
+        }
+
+        validateBean(beanMetadata);
+        if (beanMetadata.isFieldsLoaded()) {
+            validateFields(cl, beanMetadata.getFieldsMetadata());
+        }
+
+        return beanMetadata;
+    }
+
+    private boolean isSkippedClass(Class<?> cl) {
+        long start = phaseStart();
+        boolean skipped = skipClass(cl);
+        phaseEnd(cl, CollectionPhase.SKIP_CLASS, start, 1);
+        return skipped;
+    }
+
+    private void validateBeansMetadata(Collection<BM> beansMetadata) {
+        beansMetadata.forEach(this::validateBean);
+
+        beansMetadata.stream()
+                .filter(BeanMetadata::isFieldsLoaded)
+                .forEach(bm -> validateFields(bm.getType(), bm.getFieldsMetadata()));
+    }
+
+    private void validateBean(BM beanMetadata) {
+        long start = phaseStart();
+        validateBeanMetadata(beanMetadata);
+        phaseEnd(beanMetadata.getType(), CollectionPhase.BEAN_VALIDATION, start, 1);
+    }
+
+    private void validateFields(Class<?> cl, List<FM> fieldsMetadata) {
+        long start = phaseStart();
+        fieldsMetadata.forEach(this::validateFieldMetadata);
+        phaseEnd(cl, CollectionPhase.FIELD_VALIDATION, start, fieldsMetadata.size());
+    }
+
+    private long phaseStart() {
+        return collectionListeners.isEmpty() ? NOT_MEASURED : System.nanoTime();
+    }
+
+    private void phaseEnd(Class<?> cl, CollectionPhase phase, long start, int count) {
+        if (start != NOT_MEASURED) {
+            long durationNanos = System.nanoTime() - start;
+            for (CollectionListener listener : collectionListeners) {
+                listener.onPhase(cl, phase, durationNanos, count);
+            }
+        }
+    }
+
+    private Class<?> annotatedClass(Annotated annotated) {
+        if (annotated instanceof BeanMetadata) {
+            return ((BeanMetadata<?>) annotated).getType();
+        } else if (annotated instanceof FieldMetadata && ((FieldMetadata) annotated).getGetter() != null) {
+            return ((FieldMetadata) annotated).getGetter().getDeclaringClass();
         } else {
+            return null;
+        }
+    }
+
+    private BM joinBeanMetadata(CompletableFuture<BM> future) {
+        try {
+            return future.join();
+        } catch (CompletionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            } else if (cause instanceof Error) {
+                throw (Error) cause;
+            } else {
+                throw new BeanMetadataException("Error during metadata collection", cause);
+            }
+        }
+    }
+
+    private BM collectLazyBeanMetadata(Class<?> cl) {
+        BM beanMetadata = newBeanMetadata();
+        beanMetadata.setType(cl);
+
+        for (Class<?> type : classHierarchy(cl)) {
+            beanMetadata = collectBeanMetadata(type, beanMetadata);
+        }
+
+        if (generatedAccessorsEnabled) {
+            beanMetadata.setBeanAccessor(findGeneratedBeanAccessor(cl));
+        }
+
+        beanMetadata.compactAnnotations();
+
+        BM lazyBeanMetadata = beanMetadata;
+        beanMetadata.setFieldsLoader(() -> {
+            List<FM> fieldsMetadata = copyFieldsMetadata(hierarchyMetadata(cl).getFieldsMetadata());
+            validateFields(cl, fieldsMetadata);
+            if (lazyBeanMetadata.getBeanAccessor() == null && runtimeAccessorsEnabled) {
+                lazyBeanMetadata.setBeanAccessor(BeanAccessorGenerator.generate(cl, fieldsMetadata));
+            }
+            return fieldsMetadata;
+        });
+
+        return beanMetadata;
+    }
+
+    private BM collectHierarchyMetadata(Class<?> cl) {
+        long start = phaseStart();
+        BM beanMetadata = collectHierarchyMetadata(cl, newBeanMetadata());
+        if (start != NOT_MEASURED) {
+            phaseEnd(cl, CollectionPhase.HIERARCHY, start, beanMetadata.getFieldsMetadata().size());
+        }
+        return beanMetadata;
+    }
+
+    private BM collectHierarchyMetadata(Class<?> cl, BM beanMetadata) {
+        beanMetadata.setType(cl);
+
+        if (Object.class.equals(cl)) {
             return beanMetadata;
         }
+
+        Class<?> superclass = cl.getSuperclass();
+        if (superclass != null && !Object.class.equals(superclass)) {
+            beanMetadata = inheritBeanMetadata(hierarchyMetadata(superclass), beanMetadata);
+        }
+
+        beanMetadata = collectBeanMetadataFromClassHierarchy(Collections.singletonList(cl), beanMetadata);
+        compactAnnotations(beanMetadata);
+
+        return beanMetadata;
+    }
+
+    /**
+     * Identity of the collector, that is stored in the snapshot file. The snapshot with another identity is collected
+     * again. By default it is the name and the checksum of the class files of the collector class hierarchy. Override
+     * it to include the configuration of the collector, that changes the collected metadata
+     *
+     * @return identity of the collector or null if the snapshot should not be used
+     */
+    protected String snapshotIdentity() {
+        long fingerprint = new MetadataSnapshot.Fingerprints().of(getClass(), Collections.emptySet());
+        return fingerprint == MetadataSnapshot.UNKNOWN_FINGERPRINT ? null : getClass().getName() + ":" + Long.toHexString(fingerprint);
+    }
+
+    /**
+     * @return metadata restored from the snapshot or null if the snapshot does not match the class anymore
+     */
+    protected BM restoreBeanMetadata(Class<?> cl, MetadataSnapshot snapshot) {
+        MetadataSnapshot.BeanSnapshot beanSnapshot = snapshot.getBeanSnapshot(cl);
+        ClassLoader classLoader = cl.getClassLoader() != null ? cl.getClassLoader() : ClassLoader.getSystemClassLoader();
+
+        try {
+            BM beanMetadata = newBeanMetadata();
+            beanMetadata.setType(cl);
+            beanMetadata = addAnnotations(beanMetadata, beanSnapshot.resolveAnnotations(classLoader));
+
+            List<FM> fieldsMetadata = new ArrayList<>();
+            for (MetadataSnapshot.FieldSnapshot fieldSnapshot : beanSnapshot.getFields()) {
+                Class<?> fieldType = MetadataSnapshot.resolveClass(fieldSnapshot.getTypeName(), classLoader);
+
+                FM fm = newFieldMetadata();
+                fm.setName(fieldSnapshot.getName());
+                fm.setType(fieldType);
+                fm.setGetter(cl.getMethod(fieldSnapshot.getGetterName()));
+                if (fieldSnapshot.getSetterName() != null) {
+                    fm.setSetter(cl.getMethod(fieldSnapshot.getSetterName(), fieldType));
+                }
+                fm.setBeanClassName(fieldSnapshot.getBeanClassName());
+                fieldsMetadata.add(addAnnotations(fm, fieldSnapshot.resolveAnnotations(classLoader)));
+            }
+            beanMetadata.addFieldsMetadata(fieldsMetadata);
+            compactAnnotations(beanMetadata);
+            beanMetadata.setBeanAccessor(createBeanAccessor(cl, fieldsMetadata));
+
+            return beanMetadata;
+        } catch (ClassNotFoundException | NoSuchMethodException e) {
+            //Snapshot is out of date
+            return null;
+        }
+    }
+
+    /**
+     * Moves the annotations of the collected bean and its fields to the compact immutable maps
+     */
+    private void compactAnnotations(BM beanMetadata) {
+        beanMetadata.compactAnnotations();
+        beanMetadata.getFieldsMetadata().forEach(Annotated::compactAnnotations);
+    }
+
+    /**
+     * @return accessor generated at compile time, accessor generated at runtime or null if the bean should be
+     * accessed through the field metadata
+     */
+    protected BeanAccessor createBeanAccessor(Class<?> cl, List<FM> fieldsMetadata) {
+        BeanAccessor beanAccessor = generatedAccessorsEnabled ? findGeneratedBeanAccessor(cl) : null;
+
+        if (beanAccessor == null && runtimeAccessorsEnabled) {
+            beanAccessor = BeanAccessorGenerator.generate(cl, fieldsMetadata);
+        }
+
+        return beanAccessor;
+    }
+
+    /**
+     * @return accessor generated for the class annotated with {@link GenerateBeanAccessor} or null. The classes without
+     * the annotation are not probed for the generated accessor
+     */
+    protected BeanAccessor findGeneratedBeanAccessor(Class<?> cl) {
+        if (!cl.isAnnotationPresent(GenerateBeanAccessor.class)) {
+            return null;
+        }
+
+        try {
+            Class<?> accessorClass = Class.forName(BeanAccessor.generatedClassName(cl), true, cl.getClassLoader());
+            if (BeanAccessor.class.isAssignableFrom(accessorClass)) {
+                return (BeanAccessor) accessorClass.getConstructor().newInstance();
+            } else {
+                return null;
+            }
+        } catch (ClassNotFoundException | LinkageError e) {
+            //Bean without generated accessor
+            return null;
+        } catch (ReflectiveOperationException e) {
+            throw new BeanMetadataException("Cannot instantiate generated bean accessor for " + cl, e);
+        }
+    }
+
+    /**
+     * @return getters declared by the class mapped to their setters, as listed by the generated {@link BeanFieldsTable},
+     * or null if the class has no generated table
+     */
+    private Map<Method, Method> generatedFields(Class<?> cl) {
+        return generatedAccessorsEnabled ? generatedFieldsCache.get(cl).orElse(null) : null;
+    }
+
+    private Map<Method, Method> resolveGeneratedFields(Class<?> cl) {
+        BeanAccessor beanAccessor = findGeneratedBeanAccessor(cl);
+        if (!(beanAccessor instanceof BeanFieldsTable)) {
+            return null;
+        }
+
+        BeanFieldsTable fieldsTable = (BeanFieldsTable) beanAccessor;
+        String[] getterNames = fieldsTable.getDeclaredGetterNames();
+        String[] setterNames = fieldsTable.getDeclaredSetterNames();
+        Class<?>[] fieldTypes = fieldsTable.getDeclaredFieldTypes();
+
+        try {
+            Map<Method, Method> fields = new LinkedHashMap<>();
+            for (int i = 0; i < getterNames.length; i++) {
+                Method getter = cl.getDeclaredMethod(getterNames[i]);
+                if (!fieldTypes[i].equals(getter.getReturnType())) {
+                    //The table is out of date
+                    return null;
+                }
+                if (isValidGetter(getter)) {
+                    fields.put(getter, setterNames[i] == null ? null : cl.getMethod(setterNames[i], fieldTypes[i]));
+                }
+            }
+            return fields;
+        } catch (NoSuchMethodException e) {
+            //The table is out of date
+            return null;
+        }
+    }
+
+    private ClassValue<BM> newHierarchyMetadataCache() {
+        return new ClassValue<BM>() {
+            @Override
+            protected BM computeValue(Class<?> type) {
+                cachedClasses.add(type);
+                return collectHierarchyMetadata(type);
+            }
+        };
+    }
+
+    private ClassValue<Optional<BM>> newBeanMetadataCache() {
+        return new ClassValue<Optional<BM>>() {
+            @Override
+            protected Optional<BM> computeValue(Class<?> type) {
+                cachedClasses.add(type);
+                return ofNullable(doCollectBeanMetadata(type));
+            }
+        };
+    }
+
+    /**
+     * @return annotations, that the class should be annotated with to be collected by the package scanning. All
+     * classes of the packages are collected if empty
+     */
+    protected Collection<Class<? extends Annotation>> scannedAnnotationTypes() {
+        return Collections.emptyList();
+    }
+
+    protected ClassLoader scanClassLoader() {
+        ClassLoader contextClassLoader = Thread.currentThread().getContextClassLoader();
+        return contextClassLoader != null ? contextClassLoader : getClass().getClassLoader();
     }
 
     protected abstract M newMetadata();
@@ -82,6 +640,62 @@ public abstract class MetadataCollector<M extends Metadata<BM, FM>, BM extends B
 
     protected abstract FM newFieldMetadata();
 
+    /**
+     * Returns the metadata of the class together with everything inherited from its superclasses. The metadata of each
+     * superclass is collected once and its field metadata is shared by the subclasses that do not redeclare the getter.
+     * The hierarchy metadata is internal to the collector and should not be changed, the callers receive its copy
+     */
+    protected BM hierarchyMetadata(Class<?> cl) {
+        if (cacheEnabled) {
+            return hierarchyMetadataCache.get(cl);
+        } else {
+            return collectHierarchyMetadata(cl);
+        }
+    }
+
+    protected BM inheritBeanMetadata(BM superclassMetadata, BM beanMetadata) {
+        Set<Annotation> inheritedAnnotations = superclassMetadata.getAnnotations();
+        beanMetadata = addAnnotations(beanMetadata, inheritedAnnotations.toArray(new Annotation[inheritedAnnotations.size()]));
+        beanMetadata.addFieldsMetadata(superclassMetadata.getFieldsMetadata());
+        return beanMetadata;
+    }
+
+    /**
+     * Copies the hierarchy metadata before it is returned to the caller, so the changes of the returned metadata do not
+     * leak to the cache and to the subclasses
+     */
+    protected BM copyBeanMetadata(BM beanMetadata) {
+        BM copy = newBeanMetadata();
+        copy.setType(beanMetadata.getType());
+        copy.setAnnotationsMap(CompactAnnotationsMap.of(beanMetadata.getAnnotationsMap()));
+        copy.setFieldsMetadata(copyFieldsMetadata(beanMetadata.getFieldsMetadata()));
+        return copy;
+    }
+
+    protected FM copyFieldMetadata(FM fieldMetadata) {
+        FM copy = newFieldMetadata();
+        copy.setName(fieldMetadata.getName());
+        copy.setType(fieldMetadata.getType());
+        copy.setGetter(fieldMetadata.getGetter());
+        copy.setSetter(fieldMetadata.getSetter());
+        copy.setBeanClassName(fieldMetadata.getBeanClassName());
+        copy.setAnnotationsMap(CompactAnnotationsMap.of(fieldMetadata.getAnnotationsMap()));
+        return copy;
+    }
+
+    private List<FM> copyFieldsMetadata(List<FM> fieldsMetadata) {
+        List<FM> copies = new ArrayList<>(fieldsMetadata.size());
+        for (FM fm : fieldsMetadata) {
+            copies.add(copyFieldMetadata(fm));
+        }
+        return copies;
+    }
+
+    /**
+     * Collects the metadata of the classes of the hierarchy, ordered from the superclass to the subclass. The metadata
+     * of the cached superclasses is inherited before the call, so the hierarchy contains only the classes, that were
+     * not collected yet
+     */
     protected BM collectBeanMetadataFromClassHierarchy(List<Class<?>> hierarchy, BM typeMetadata) {
         if (!hierarchy.isEmpty()) {
             Class<?> type = hierarchy.get(0);
@@ -95,7 +709,9 @@ public abstract class MetadataCollector<M extends Metadata<BM, FM>, BM extends B
     protected BM collectTypeMetadataFromClass(Class<?> cl, BM beanMetadata) {
         beanMetadata = collectBeanMetadata(cl, beanMetadata);
 
+        long start = phaseStart();
         Set<Method> annotatedGetters = collectFieldsGetters(cl);
+        phaseEnd(cl, CollectionPhase.GETTER_SCAN, start, annotatedGetters.size());
 
         beanMetadata.addFieldsMetadata(collectFieldsMetadata(cl, annotatedGetters, beanMetadata));
 
@@ -112,13 +728,21 @@ public abstract class MetadataCollector<M extends Metadata<BM, FM>, BM extends B
         fieldMetadata.setBeanClassName(cl.getName());
         Annotation[] declaredAnnotations = getter.getDeclaredAnnotations();
         fieldMetadata = handleAnnotations(fieldMetadata, declaredAnnotations);
-        fieldMetadata.setSetter(ofNullable(findSetterForGetter(cl, getter)).orElse(fieldMetadata.getSetter()));
+        long start = phaseStart();
+        Method setter = findSetterForGetter(cl, getter);
+        phaseEnd(cl, CollectionPhase.SETTER_RESOLUTION, start, setter == null ? 0 : 1);
+        fieldMetadata.setSetter(ofNullable(setter).orElse(fieldMetadata.getSetter()));
         return fieldMetadata;
     }
 
     protected <T extends Annotated> T handleAnnotations(T annotated, Annotation[] declaredAnnotations) {
+        long start = phaseStart();
         annotated = removeAnnotations(annotated, declaredAnnotations);
+        phaseEnd(annotatedClass(annotated), CollectionPhase.REMOVE_ANNOTATIONS, start, declaredAnnotations.length);
+
+        start = phaseStart();
         annotated = addAnnotations(annotated, declaredAnnotations);
+        phaseEnd(annotatedClass(annotated), CollectionPhase.ADD_ANNOTATIONS, start, declaredAnnotations.length);
         return annotated;
     }
 
@@ -184,17 +808,49 @@ public abstract class MetadataCollector<M extends Metadata<BM, FM>, BM extends B
         }
     }
 
+    /**
+     * @return getters in the order of their declaration. The order is taken from the generated {@link BeanFieldsTable}
+     * or from the class file. If the class file is not available, the getters are ordered by name
+     */
     private Set<Method> collectFieldsGetters(Class<?> cl) {
-        return Arrays.stream(cl.getDeclaredMethods())
+        Map<Method, Method> generatedFields = generatedFields(cl);
+        if (generatedFields != null) {
+            return new LinkedHashSet<>(generatedFields.keySet());
+        }
+
+        List<Method> getters = Arrays.stream(cl.getDeclaredMethods())
                 .filter(this::isValidGetter)
-                .collect(Collectors.toSet());
+                .collect(Collectors.toList());
+
+        Map<String, Integer> declarationOrder = getters.size() > 1 ? declarationOrderCache.get(cl).orElse(null) : null;
+        Comparator<Method> byName = Comparator.comparing(Method::getName);
+        if (declarationOrder == null) {
+            getters.sort(byName);
+        } else {
+            getters.sort(Comparator.<Method>comparingInt(m -> declarationOrder.getOrDefault(m.getName(), Integer.MAX_VALUE)).thenComparing(byName));
+        }
+
+        return new LinkedHashSet<>(getters);
+    }
+
+    private Map<String, Integer> resolveDeclarationOrder(Class<?> cl) {
+        List<String> declaredMethodNames = ClassPathScanner.declaredMethodNames(cl);
+        if (declaredMethodNames == null) {
+            return null;
+        }
+
+        Map<String, Integer> declarationOrder = new HashMap<>();
+        for (int i = 0; i < declaredMethodNames.size(); i++) {
+            declarationOrder.putIfAbsent(declaredMethodNames.get(i), i);
+        }
+        return declarationOrder;
     }
 
     protected List<FM> collectFieldsMetadata(Class<?> cl, Set<Method> getters, BM beanMetadata) {
         List<FM> result = new ArrayList<>();
         for (Method getter : getters) {
             String fieldName = fieldNameFromGetter(getter);
-            FM fm = beanMetadata.getOrCreateFieldMetadataByName(fieldName, newFieldMetadata());
+            FM fm = declaredFieldMetadata(cl, fieldName, beanMetadata);
             fm.setType(getter.getReturnType());
             fm.setGetter(getter);
 
@@ -208,6 +864,19 @@ public abstract class MetadataCollector<M extends Metadata<BM, FM>, BM extends B
         return result;
     }
 
+    private FM declaredFieldMetadata(Class<?> cl, String fieldName, BM beanMetadata) {
+        FM inherited = beanMetadata.getFieldMetadata(fieldName);
+
+        if (inherited != null && !cl.getName().equals(inherited.getBeanClassName())) {
+            // The inherited field metadata is shared with the superclass, so it is copied before the overlay
+            FM fm = copyFieldMetadata(inherited);
+            beanMetadata.addFieldMetadata(fm);
+            return fm;
+        } else {
+            return beanMetadata.getOrCreateFieldMetadataByName(fieldName, newFieldMetadata());
+        }
+    }
+
     protected Collection<Annotation> filterSkippedAnnotations(Annotation[] annotations) {
         return filterSkippedAnnotations(Arrays.asList(annotations));
     }
@@ -219,7 +888,8 @@ public abstract class MetadataCollector<M extends Metadata<BM, FM>, BM extends B
     }
 
     protected boolean isSkippedAnnotation(Annotation annotation) {
-        return annotation.annotationType().equals(RemoveInheritedAnnotations.class);
+        return annotation.annotationType().equals(RemoveInheritedAnnotations.class)
+                || annotation.annotationType().equals(GenerateBeanAccessor.class);
     }
 
     protected boolean isValidGetter(Method m) {
@@ -246,7 +916,7 @@ public abstract class MetadataCollector<M extends Metadata<BM, FM>, BM extends B
 
     protected List<Class<?>> classHierarchy(Class<?> cl) {
         List<Class<?>> hierarchy = new ArrayList<>();
-        while (!Object.class.equals(cl)) {
+        while (cl != null && !Object.class.equals(cl)) {
             hierarchy.add(cl);
             cl = cl.getSuperclass();
         }
@@ -255,6 +925,11 @@ public abstract class MetadataCollector<M extends Metadata<BM, FM>, BM extends B
     }
 
     protected Method findSetterForGetter(Class<?> cl, Method getter) {
+        Map<Method, Method> generatedFields = generatedFields(cl);
+        if (generatedFields != null && generatedFields.containsKey(getter)) {
+            return generatedFields.get(getter);
+        }
+
         try {
             Method setter = cl.getMethod(setterNameFromGetter(getter), getter.getReturnType());
             boolean validSetter = setter != null && setter.getParameterCount() == 1 && isPublic(setter);
@@ -0,0 +1,728 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package com.afrunt.beanmetadata;
+
+import java.io.*;
+import java.lang.annotation.Annotation;
+import java.lang.reflect.Array;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.*;
+import java.util.zip.CRC32;
+
+/**
+ * Compact binary form of the collected metadata. Every bean is stored together with the fingerprint of the class
+ * files of its hierarchy and of its annotation types, so the collector restores only the beans whose classes were not
+ * changed since the snapshot was written. The snapshot also keeps the identity of the collector, that wrote it. See
+ * {@link MetadataCollector#collectMetadata(Collection, Path)}
+ *
+ * @author Andrii Frunt
+ */
+public class MetadataSnapshot {
+    private static final int MAGIC = 0xBEA4DA7A;
+    private static final int VERSION = 2;
+    static final long UNKNOWN_FINGERPRINT = -1;
+
+    private final String collectorIdentity;
+    private final Map<String, BeanSnapshot> beans = new LinkedHashMap<>();
+
+    public MetadataSnapshot() {
+        this("");
+    }
+
+    /**
+     * @param collectorIdentity identity of the collector, see {@link MetadataCollector#snapshotIdentity()}
+     */
+    public MetadataSnapshot(String collectorIdentity) {
+        this.collectorIdentity = collectorIdentity;
+    }
+
+    /**
+     * @return snapshot of the metadata with the empty collector identity
+     */
+    public static MetadataSnapshot of(Metadata<?, ?> metadata) {
+        MetadataSnapshot snapshot = new MetadataSnapshot();
+        Fingerprints fingerprints = new Fingerprints();
+        for (BeanMetadata<?> bm : metadata.getBeansMetadata()) {
+            snapshot.putBeanSnapshot(bm, fingerprints);
+        }
+        return snapshot;
+    }
+
+    /**
+     * @throws BeanMetadataException if the file cannot be read, is truncated, corrupted or has another format version
+     */
+    public static MetadataSnapshot read(Path file) {
+        try (InputStream is = new BufferedInputStream(Files.newInputStream(file))) {
+            return read(is);
+        } catch (BeanMetadataException e) {
+            throw e;
+        } catch (IOException | RuntimeException e) {
+            throw new BeanMetadataException("Error reading metadata snapshot " + file, e);
+        }
+    }
+
+    public static MetadataSnapshot read(InputStream is) throws IOException {
+        DataInputStream in = new DataInputStream(is);
+
+        if (in.readInt() != MAGIC || in.readUnsignedShort() != VERSION) {
+            throw new BeanMetadataException("Unsupported metadata snapshot format");
+        }
+
+        MetadataSnapshot snapshot = new MetadataSnapshot(in.readUTF());
+        int beansCount = in.readInt();
+        for (int i = 0; i < beansCount; i++) {
+            BeanSnapshot beanSnapshot = BeanSnapshot.read(in);
+            snapshot.beans.put(beanSnapshot.className, beanSnapshot);
+        }
+        return snapshot;
+    }
+
+    /**
+     * Writes the snapshot to the temporary file in the same directory and moves it over the target, so the readers
+     * never see the partially written snapshot
+     */
+    public void write(Path file) {
+        Path directory = file.toAbsolutePath().getParent();
+        Path tempFile = null;
+        try {
+            tempFile = Files.createTempFile(directory, file.getFileName().toString(), ".tmp");
+            try (OutputStream os = new BufferedOutputStream(Files.newOutputStream(tempFile))) {
+                write(os);
+            }
+            try {
+                Files.move(tempFile, file, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+            } catch (AtomicMoveNotSupportedException e) {
+                Files.move(tempFile, file, StandardCopyOption.REPLACE_EXISTING);
+            }
+        } catch (IOException e) {
+            throw new BeanMetadataException("Error writing metadata snapshot " + file, e);
+        } finally {
+            if (tempFile != null) {
+                try {
+                    Files.deleteIfExists(tempFile);
+                } catch (IOException e) {
+                    //The temporary file is left in the directory
+                }
+            }
+        }
+    }
+
+    public void write(OutputStream os) throws IOException {
+        DataOutputStream out = new DataOutputStream(os);
+        out.writeInt(MAGIC);
+        out.writeShort(VERSION);
+        out.writeUTF(collectorIdentity);
+        out.writeInt(beans.size());
+        for (BeanSnapshot beanSnapshot : beans.values()) {
+            beanSnapshot.write(out);
+        }
+        out.flush();
+    }
+
+    public String getCollectorIdentity() {
+        return collectorIdentity;
+    }
+
+    public Set<String> getClassNames() {
+        return Collections.unmodifiableSet(beans.keySet());
+    }
+
+    public boolean isUpToDate(Class<?> cl) {
+        return isUpToDate(cl, new Fingerprints());
+    }
+
+    boolean isUpToDate(Class<?> cl, Fingerprints fingerprints) {
+        BeanSnapshot beanSnapshot = beans.get(cl.getName());
+        return beanSnapshot != null
+                && beanSnapshot.fingerprint != UNKNOWN_FINGERPRINT
+                && beanSnapshot.fingerprint == fingerprints.of(cl, beanSnapshot.annotationTypeNames());
+    }
+
+    BeanSnapshot getBeanSnapshot(Class<?> cl) {
+        return beans.get(cl.getName());
+    }
+
+    void putBeanSnapshot(BeanMetadata<?> beanMetadata, Fingerprints fingerprints) {
+        BeanSnapshot beanSnapshot = BeanSnapshot.of(beanMetadata);
+        beanSnapshot.fingerprint = fingerprints.of(beanMetadata.getType(), beanSnapshot.annotationTypeNames());
+        beans.put(beanSnapshot.className, beanSnapshot);
+    }
+
+    /**
+     * Removes the beans of the classes, that are not in the given collection
+     *
+     * @return true if any bean was removed
+     */
+    boolean retainBeans(Collection<String> classNames) {
+        return beans.keySet().retainAll(classNames);
+    }
+
+    /**
+     * Checksums of the class files. Every class file is read once per instance, so the instance is shared by all
+     * fingerprints computed during one collection
+     */
+    static class Fingerprints {
+        private final Map<String, Long> checksums = new HashMap<>();
+
+        /**
+         * @return checksum of the class files of the class, its superclasses and the annotation types or -1 if the
+         * class files are not available
+         */
+        long of(Class<?> cl, Collection<String> annotationTypeNames) {
+            CRC32 crc = new CRC32();
+
+            for (Class<?> c = cl; c != null && !Object.class.equals(c); c = c.getSuperclass()) {
+                if (!update(crc, c.getName(), c.getClassLoader())) {
+                    return UNKNOWN_FINGERPRINT;
+                }
+            }
+
+            for (String annotationTypeName : annotationTypeNames) {
+                if (!update(crc, annotationTypeName, cl.getClassLoader())) {
+                    return UNKNOWN_FINGERPRINT;
+                }
+            }
+
+            return crc.getValue();
+        }
+
+        private boolean update(CRC32 crc, String className, ClassLoader classLoader) {
+            long checksum = checksums.computeIfAbsent(className, name -> checksum(name, classLoader));
+            if (checksum == UNKNOWN_FINGERPRINT) {
+                return false;
+            }
+
+            for (int i = 0; i < Long.BYTES; i++) {
+                crc.update((int) (checksum >>> (i * 8)));
+            }
+            return true;
+        }
+
+        private static long checksum(String className, ClassLoader classLoader) {
+            CRC32 crc = new CRC32();
+            byte[] buffer = new byte[4096];
+            String resourceName = className.replace('.', '/') + ".class";
+
+            try (InputStream is = classLoader != null ? classLoader.getResourceAsStream(resourceName) : ClassLoader.getSystemResourceAsStream(resourceName)) {
+                if (is == null) {
+                    return UNKNOWN_FINGERPRINT;
+                }
+                int read;
+                while ((read = is.read(buffer)) >= 0) {
+                    crc.update(buffer, 0, read);
+                }
+                return crc.getValue();
+            } catch (IOException e) {
+                return UNKNOWN_FINGERPRINT;
+            }
+        }
+    }
+
+    static class BeanSnapshot {
+        private String className;
+        private long fingerprint;
+        private List<AnnotationSnapshot> annotations;
+        private List<FieldSnapshot> fields;
+
+        private static BeanSnapshot of(BeanMetadata<?> bm) {
+            BeanSnapshot snapshot = new BeanSnapshot();
+            snapshot.className = bm.getTypeName();
+            snapshot.annotations = AnnotationSnapshot.of(bm.getAnnotations());
+            snapshot.fields = new ArrayList<>();
+            for (FieldMetadata fm : bm.getFieldsMetadata()) {
+                snapshot.fields.add(FieldSnapshot.of(fm));
+            }
+            return snapshot;
+        }
+
+        /**
+         * @return sorted names of the annotation types of the bean and its fields
+         */
+        private Set<String> annotationTypeNames() {
+            Set<String> typeNames = new TreeSet<>();
+            AnnotationSnapshot.collectTypeNames(annotations, typeNames);
+            for (FieldSnapshot field : fields) {
+                AnnotationSnapshot.collectTypeNames(field.annotations, typeNames);
+            }
+            return typeNames;
+        }
+
+        private static BeanSnapshot read(DataInputStream in) throws IOException {
+            BeanSnapshot snapshot = new BeanSnapshot();
+            snapshot.className = in.readUTF();
+            snapshot.fingerprint = in.readLong();
+            snapshot.annotations = AnnotationSnapshot.readAll(in);
+            int fieldsCount = in.readInt();
+            snapshot.fields = new ArrayList<>(fieldsCount);
+            for (int i = 0; i < fieldsCount; i++) {
+                snapshot.fields.add(FieldSnapshot.read(in));
+            }
+            return snapshot;
+        }
+
+        private void write(DataOutputStream out) throws IOException {
+            out.writeUTF(className);
+            out.writeLong(fingerprint);
+            AnnotationSnapshot.writeAll(annotations, out);
+            out.writeInt(fields.size());
+            for (FieldSnapshot field : fields) {
+                field.write(out);
+            }
+        }
+
+        Annotation[] resolveAnnotations(ClassLoader classLoader) throws ClassNotFoundException {
+            return AnnotationSnapshot.resolveAll(annotations, classLoader);
+        }
+
+        List<FieldSnapshot> getFields() {
+            return fields;
+        }
+    }
+
+    static class FieldSnapshot {
+        private String name;
+        private String typeName;
+        private String getterName;
+        private String setterName;
+        private String beanClassName;
+        private List<AnnotationSnapshot> annotations;
+
+        private static FieldSnapshot of(FieldMetadata fm) {
+            FieldSnapshot snapshot = new FieldSnapshot();
+            snapshot.name = fm.getName();
+            snapshot.typeName = fm.getTypeName();
+            snapshot.getterName = fm.getGetter().getName();
+            snapshot.setterName = fm.getSetter() == null ? null : fm.getSetter().getName();
+            snapshot.beanClassName = fm.getBeanClassName();
+            snapshot.annotations = AnnotationSnapshot.of(fm.getAnnotations());
+            return snapshot;
+        }
+
+        private static FieldSnapshot read(DataInputStream in) throws IOException {
+            FieldSnapshot snapshot = new FieldSnapshot();
+            snapshot.name = in.readUTF();
+            snapshot.typeName = in.readUTF();
+            snapshot.getterName = in.readUTF();
+            snapshot.setterName = in.readBoolean() ? in.readUTF() : null;
+            snapshot.beanClassName = in.readUTF();
+            snapshot.annotations = AnnotationSnapshot.readAll(in);
+            return snapshot;
+        }
+
+        private void write(DataOutputStream out) throws IOException {
+            out.writeUTF(name);
+            out.writeUTF(typeName);
+            out.writeUTF(getterName);
+            out.writeBoolean(setterName != null);
+            if (setterName != null) {
+                out.writeUTF(setterName);
+            }
+            out.writeUTF(beanClassName);
+            AnnotationSnapshot.writeAll(annotations, out);
+        }
+
+        String getName() {
+            return name;
+        }
+
+        String getTypeName() {
+            return typeName;
+        }
+
+        String getGetterName() {
+            return getterName;
+        }
+
+        String getSetterName() {
+            return setterName;
+        }
+
+        String getBeanClassName() {
+            return beanClassName;
+        }
+
+        Annotation[] resolveAnnotations(ClassLoader classLoader) throws ClassNotFoundException {
+            return AnnotationSnapshot.resolveAll(annotations, classLoader);
+        }
+    }
+
+    private static class AnnotationSnapshot {
+        private String typeName;
+        private Map<String, Object> values;
+
+        private static List<AnnotationSnapshot> of(Collection<Annotation> annotations) {
+            List<AnnotationSnapshot> result = new ArrayList<>(annotations.size());
+            for (Annotation annotation : annotations) {
+                result.add(of(annotation));
+            }
+            return result;
+        }
+
+        private static AnnotationSnapshot of(Annotation annotation) {
+            AnnotationSnapshot snapshot = new AnnotationSnapshot();
+            snapshot.typeName = annotation.annotationType().getName();
+            snapshot.values = new LinkedHashMap<>();
+            for (Method member : annotation.annotationType().getDeclaredMethods()) {
+                try {
+                    member.setAccessible(true);
+                    snapshot.values.put(member.getName(), snapshotValue(member.invoke(annotation)));
+                } catch (IllegalAccessException | InvocationTargetException e) {
+                    throw new BeanMetadataException("Cannot read annotation value " + member, e);
+                }
+            }
+            return snapshot;
+        }
+
+        private static void collectTypeNames(Collection<?> values, Set<String> typeNames) {
+            for (Object value : values) {
+                if (value instanceof AnnotationSnapshot) {
+                    AnnotationSnapshot annotation = (AnnotationSnapshot) value;
+                    typeNames.add(annotation.typeName);
+                    collectTypeNames(annotation.values.values(), typeNames);
+                } else if (value instanceof ArrayValue) {
+                    collectTypeNames(Arrays.asList(((ArrayValue) value).elements), typeNames);
+                }
+            }
+        }
+
+        private static Object snapshotValue(Object value) {
+            if (value instanceof Enum) {
+                return new EnumValue(((Enum<?>) value).getDeclaringClass().getName(), ((Enum<?>) value).name());
+            } else if (value instanceof Class) {
+                return new ClassName(((Class<?>) value).getName());
+            } else if (value instanceof Annotation) {
+                return of((Annotation) value);
+            } else if (value.getClass().isArray()) {
+                int length = Array.getLength(value);
+                Object[] elements = new Object[length];
+                for (int i = 0; i < length; i++) {
+                    elements[i] = snapshotValue(Array.get(value, i));
+                }
+                return new ArrayValue(value.getClass().getComponentType().getName(), elements);
+            } else {
+                return value;
+            }
+        }
+
+        private static List<AnnotationSnapshot> readAll(DataInputStream in) throws IOException {
+            int count = in.readInt();
+            List<AnnotationSnapshot> result = new ArrayList<>(count);
+            for (int i = 0; i < count; i++) {
+                result.add(read(in));
+            }
+            return result;
+        }
+
+        private static AnnotationSnapshot read(DataInputStream in) throws IOException {
+            AnnotationSnapshot snapshot = new AnnotationSnapshot();
+            snapshot.typeName = in.readUTF();
+            int valuesCount = in.readInt();
+            snapshot.values = new LinkedHashMap<>();
+            for (int i = 0; i < valuesCount; i++) {
+                snapshot.values.put(in.readUTF(), readValue(in));
+            }
+            return snapshot;
+        }
+
+        private static Object readValue(DataInputStream in) throws IOException {
+            char tag = (char) in.readByte();
+            switch (tag) {
+                case 'Z':
+                    return in.readBoolean();
+                case 'B':
+                    return in.readByte();
+                case 'C':
+                    return in.readChar();
+                case 'S':
+                    return in.readShort();
+                case 'I':
+                    return in.readInt();
+                case 'J':
+                    return in.readLong();
+                case 'F':
+                    return in.readFloat();
+                case 'D':
+                    return in.readDouble();
+                case 's':
+                    return in.readUTF();
+                case 'e':
+                    return new EnumValue(in.readUTF(), in.readUTF());
+                case 'c':
+                    return new ClassName(in.readUTF());
+                case '@':
+                    return read(in);
+                case '[':
+                    String componentTypeName = in.readUTF();
+                    Object[] elements = new Object[in.readInt()];
+                    for (int i = 0; i < elements.length; i++) {
+                        elements[i] = readValue(in);
+                    }
+                    return new ArrayValue(componentTypeName, elements);
+                default:
+                    throw new BeanMetadataException("Unknown annotation value tag " + tag);
+            }
+        }
+
+        private static void writeAll(List<AnnotationSnapshot> annotations, DataOutputStream out) throws IOException {
+            out.writeInt(annotations.size());
+            for (AnnotationSnapshot annotation : annotations) {
+                annotation.write(out);
+            }
+        }
+
+        private void write(DataOutputStream out) throws IOException {
+            out.writeUTF(typeName);
+            out.writeInt(values.size());
+            for (Map.Entry<String, Object> entry : values.entrySet()) {
+                out.writeUTF(entry.getKey());
+                writeValue(entry.getValue(), out);
+            }
+        }
+
+        private static void writeValue(Object value, DataOutputStream out) throws IOException {
+            if (value instanceof Boolean) {
+                out.writeByte('Z');
+                out.writeBoolean((Boolean) value);
+            } else if (value instanceof Byte) {
+                out.writeByte('B');
+                out.writeByte((Byte) value);
+            } else if (value instanceof Character) {
+                out.writeByte('C');
+                out.writeChar((Character) value);
+            } else if (value instanceof Short) {
+                out.writeByte('S');
+                out.writeShort((Short) value);
+            } else if (value instanceof Integer) {
+                out.writeByte('I');
+                out.writeInt((Integer) value);
+            } else if (value instanceof Long) {
+                out.writeByte('J');
+                out.writeLong((Long) value);
+            } else if (value instanceof Float) {
+                out.writeByte('F');
+                out.writeFloat((Float) value);
+            } else if (value instanceof Double) {
+                out.writeByte('D');
+                out.writeDouble((Double) value);
+            } else if (value instanceof String) {
+                out.writeByte('s');
+                out.writeUTF((String) value);
+            } else if (value instanceof EnumValue) {
+                out.writeByte('e');
+                out.writeUTF(((EnumValue) value).typeName);
+                out.writeUTF(((EnumValue) value).name);
+            } else if (value instanceof ClassName) {
+                out.writeByte('c');
+                out.writeUTF(((ClassName) value).name);
+            } else if (value instanceof AnnotationSnapshot) {
+                out.writeByte('@');
+                ((AnnotationSnapshot) value).write(out);
+            } else {
+                ArrayValue array = (ArrayValue) value;
+                out.writeByte('[');
+                out.writeUTF(array.componentTypeName);
+                out.writeInt(array.elements.length);
+                for (Object element : array.elements) {
+                    writeValue(element, out);
+                }
+            }
+        }
+
+        private static Annotation[] resolveAll(List<AnnotationSnapshot> annotations, ClassLoader classLoader) throws ClassNotFoundException {
+            Annotation[] result = new Annotation[annotations.size()];
+            for (int i = 0; i < result.length; i++) {
+                result[i] = annotations.get(i).resolve(classLoader);
+            }
+            return result;
+        }
+
+        @SuppressWarnings("unchecked")
+        private Annotation resolve(ClassLoader classLoader) throws ClassNotFoundException {
+            Class<? extends Annotation> annotationType = (Class<? extends Annotation>) resolveClass(typeName, classLoader);
+            Map<String, Object> resolvedValues = new LinkedHashMap<>();
+            for (Map.Entry<String, Object> entry : values.entrySet()) {
+                resolvedValues.put(entry.getKey(), resolveValue(entry.getValue(), classLoader));
+            }
+            return (Annotation) Proxy.newProxyInstance(annotationType.getClassLoader(), new Class<?>[]{annotationType},
+                    new AnnotationInvocationHandler(annotationType, resolvedValues));
+        }
+
+        @SuppressWarnings({"unchecked", "rawtypes"})
+        private static Object resolveValue(Object value, ClassLoader classLoader) throws ClassNotFoundException {
+            if (value instanceof EnumValue) {
+                return Enum.valueOf((Class<? extends Enum>) resolveClass(((EnumValue) value).typeName, classLoader), ((EnumValue) value).name);
+            } else if (value instanceof ClassName) {
+                return resolveClass(((ClassName) value).name, classLoader);
+            } else if (value instanceof AnnotationSnapshot) {
+                return ((AnnotationSnapshot) value).resolve(classLoader);
+            } else if (value instanceof ArrayValue) {
+                ArrayValue arrayValue = (ArrayValue) value;
+                Object array = Array.newInstance(resolveClass(arrayValue.componentTypeName, classLoader), arrayValue.elements.length);
+                for (int i = 0; i < arrayValue.elements.length; i++) {
+                    Array.set(array, i, resolveValue(arrayValue.elements[i], classLoader));
+                }
+                return array;
+            } else {
+                return value;
+            }
+        }
+    }
+
+    static Class<?> resolveClass(String name, ClassLoader classLoader) throws ClassNotFoundException {
+        switch (name) {
+            case "boolean":
+                return boolean.class;
+            case "byte":
+                return byte.class;
+            case "char":
+                return char.class;
+            case "short":
+                return short.class;
+            case "int":
+                return int.class;
+            case "long":
+                return long.class;
+            case "float":
+                return float.class;
+            case "double":
+                return double.class;
+            case "void":
+                return void.class;
+            default:
+                return Class.forName(name, false, classLoader);
+        }
+    }
+
+    private static class EnumValue {
+        private final String typeName;
+        private final String name;
+
+        private EnumValue(String typeName, String name) {
+            this.typeName = typeName;
+            this.name = name;
+        }
+    }
+
+    private static class ClassName {
+        private final String name;
+
+        private ClassName(String name) {
+            this.name = name;
+        }
+    }
+
+    private static class ArrayValue {
+        private final String componentTypeName;
+        private final Object[] elements;
+
+        private ArrayValue(String componentTypeName, Object[] elements) {
+            this.componentTypeName = componentTypeName;
+            this.elements = elements;
+        }
+    }
+
+    /**
+     * Implements the annotation restored from the snapshot according to the contract of {@link Annotation}
+     */
+    private static class AnnotationInvocationHandler implements InvocationHandler {
+        private final Class<? extends Annotation> annotationType;
+        private final Map<String, Object> values;
+
+        private AnnotationInvocationHandler(Class<? extends Annotation> annotationType, Map<String, Object> values) {
+            this.annotationType = annotationType;
+            this.values = values;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            String name = method.getName();
+
+            if ("equals".equals(name) && method.getParameterCount() == 1) {
+                return annotationEquals(args[0]);
+            } else if ("hashCode".equals(name) && method.getParameterCount() == 0) {
+                return annotationHashCode();
+            } else if ("toString".equals(name) && method.getParameterCount() == 0) {
+                return annotationToString();
+            } else if ("annotationType".equals(name) && method.getParameterCount() == 0) {
+                return annotationType;
+            }
+
+            Object value = values.get(name);
+            if (value == null) {
+                throw new BeanMetadataException("Annotation member not found in snapshot " + method);
+            }
+            return cloneArray(value);
+        }
+
+        private boolean annotationEquals(Object other) throws IllegalAccessException, InvocationTargetException {
+            if (!annotationType.isInstance(other)) {
+                return false;
+            }
+
+            for (Map.Entry<String, Object> entry : values.entrySet()) {
+                try {
+                    Method member = annotationType.getDeclaredMethod(entry.getKey());
+                    member.setAccessible(true);
+                    Object otherValue = member.invoke(other);
+                    if (!Arrays.deepEquals(new Object[]{entry.getValue()}, new Object[]{otherValue})) {
+                        return false;
+                    }
+                } catch (NoSuchMethodException e) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        private int annotationHashCode() {
+            int hashCode = 0;
+            for (Map.Entry<String, Object> entry : values.entrySet()) {
+                int valueHashCode = Arrays.deepHashCode(new Object[]{entry.getValue()}) - 31;
+                hashCode += (127 * entry.getKey().hashCode()) ^ valueHashCode;
+            }
+            return hashCode;
+        }
+
+        private String annotationToString() {
+            StringJoiner joiner = new StringJoiner(", ", "@" + annotationType.getName() + "(", ")");
+            for (Map.Entry<String, Object> entry : values.entrySet()) {
+                String valueString = Arrays.deepToString(new Object[]{entry.getValue()});
+                joiner.add(entry.getKey() + "=" + valueString.substring(1, valueString.length() - 1));
+            }
+            return joiner.toString();
+        }
+
+        private Object cloneArray(Object value) {
+            if (value.getClass().isArray()) {
+                int length = Array.getLength(value);
+                Object copy = Array.newInstance(value.getClass().getComponentType(), length);
+                System.arraycopy(value, 0, copy, 0, length);
+                return copy;
+            }
+            return value;
+        }
+    }
+}
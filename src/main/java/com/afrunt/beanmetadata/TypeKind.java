@@ -0,0 +1,101 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package com.afrunt.beanmetadata;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.util.Date;
+
+/**
+ * Classification of the type, that is computed once per type. The primitive types and their wrappers share the kind
+ *
+ * @author Andrii Frunt
+ */
+public enum TypeKind {
+    STRING(false, false),
+    BOOLEAN(false, false),
+    CHARACTER(false, false),
+    BYTE(true, false),
+    SHORT(true, false),
+    INTEGER(true, false),
+    LONG(true, false),
+    FLOAT(true, true),
+    DOUBLE(true, true),
+    BIG_INTEGER(true, false),
+    BIG_DECIMAL(true, true),
+    /**
+     * Other subclasses of the {@link Number}
+     */
+    NUMBER(true, false),
+    DATE(false, false),
+    ENUM(false, false),
+    OTHER(false, false);
+
+    private final boolean numeric;
+    private final boolean fractional;
+
+    TypeKind(boolean numeric, boolean fractional) {
+        this.numeric = numeric;
+        this.fractional = fractional;
+    }
+
+    public boolean isNumeric() {
+        return numeric;
+    }
+
+    public boolean isFractional() {
+        return fractional;
+    }
+
+    public static TypeKind of(Class<?> type) {
+        if (type == null) {
+            return OTHER;
+        } else if (String.class.equals(type)) {
+            return STRING;
+        } else if (Boolean.class.equals(type) || boolean.class.equals(type)) {
+            return BOOLEAN;
+        } else if (Character.class.equals(type) || char.class.equals(type)) {
+            return CHARACTER;
+        } else if (Byte.class.equals(type) || byte.class.equals(type)) {
+            return BYTE;
+        } else if (Short.class.equals(type) || short.class.equals(type)) {
+            return SHORT;
+        } else if (Integer.class.equals(type) || int.class.equals(type)) {
+            return INTEGER;
+        } else if (Long.class.equals(type) || long.class.equals(type)) {
+            return LONG;
+        } else if (Float.class.equals(type) || float.class.equals(type)) {
+            return FLOAT;
+        } else if (Double.class.equals(type) || double.class.equals(type)) {
+            return DOUBLE;
+        } else if (BigInteger.class.equals(type)) {
+            return BIG_INTEGER;
+        } else if (BigDecimal.class.equals(type)) {
+            return BIG_DECIMAL;
+        } else if (Number.class.isAssignableFrom(type)) {
+            return NUMBER;
+        } else if (Date.class.equals(type)) {
+            return DATE;
+        } else if (type.isEnum()) {
+            return ENUM;
+        } else {
+            return OTHER;
+        }
+    }
+}
@@ -19,9 +19,6 @@
 package com.afrunt.beanmetadata;
 
 import java.lang.reflect.Modifier;
-import java.math.BigDecimal;
-import java.math.BigInteger;
-import java.util.Date;
 
 /**
  * @author Andrii Frunt
@@ -29,6 +26,13 @@ import java.util.Date;
 public interface Typed {
     Class<?> getType();
 
+    /**
+     * @return kind of the type. The implementations should cache the kind when the type is set
+     */
+    default TypeKind getTypeKind() {
+        return TypeKind.of(getType());
+    }
+
     default boolean typeIs(Class<?> type) {
         return type.equals(getType());
     }
@@ -54,55 +58,55 @@ public interface Typed {
     }
 
     default boolean isString() {
-        return typeIs(String.class);
+        return getTypeKind() == TypeKind.STRING;
     }
 
     default boolean isNumber() {
-        return Number.class.isAssignableFrom(getType());
+        return getTypeKind().isNumeric() && !isPrimitive();
     }
 
     default boolean isFractional() {
-        return isNumber() && (isDouble() || isBigDecimal() || isFloat());
+        return getTypeKind().isFractional() && isNumber();
     }
 
     default boolean isShort() {
-        return typeIs(Short.class) || isPrimitiveWithName("short");
+        return getTypeKind() == TypeKind.SHORT;
     }
 
     default boolean isInteger() {
-        return typeIs(Integer.class) || isPrimitiveWithName("int");
+        return getTypeKind() == TypeKind.INTEGER;
     }
 
     default boolean isDouble() {
-        return typeIs(Double.class) || isPrimitiveWithName("double");
+        return getTypeKind() == TypeKind.DOUBLE;
     }
 
     default boolean isLong() {
-        return typeIs(Long.class) || isPrimitiveWithName("long");
+        return getTypeKind() == TypeKind.LONG;
     }
 
     default boolean isFloat() {
-        return typeIs(Float.class) || isPrimitiveWithName("float");
+        return getTypeKind() == TypeKind.FLOAT;
     }
 
     default boolean isByte() {
-        return typeIs(Byte.class) || isPrimitiveWithName("byte");
+        return getTypeKind() == TypeKind.BYTE;
     }
 
     default boolean isBoolean() {
-        return typeIs(Boolean.class) || isPrimitiveWithName("boolean");
+        return getTypeKind() == TypeKind.BOOLEAN;
     }
 
     default boolean isBigDecimal() {
-        return typeIs(BigDecimal.class);
+        return getTypeKind() == TypeKind.BIG_DECIMAL;
     }
 
     default boolean isBigInteger() {
-        return typeIs(BigInteger.class);
+        return getTypeKind() == TypeKind.BIG_INTEGER;
     }
 
     default boolean isDate() {
-        return typeIs(Date.class);
+        return getTypeKind() == TypeKind.DATE;
     }
 
     default boolean isPrimitiveWithName(String name) {
@@ -0,0 +1,295 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package com.afrunt.beanmetadata.processor;
+
+import com.afrunt.beanmetadata.BeanAccessor;
+import com.afrunt.beanmetadata.BeanFieldsTable;
+import com.afrunt.beanmetadata.annotation.GenerateBeanAccessor;
+
+import javax.annotation.processing.AbstractProcessor;
+import javax.annotation.processing.RoundEnvironment;
+import javax.annotation.processing.SupportedAnnotationTypes;
+import javax.lang.model.SourceVersion;
+import javax.lang.model.element.*;
+import javax.lang.model.type.PrimitiveType;
+import javax.lang.model.type.TypeKind;
+import javax.lang.model.type.TypeMirror;
+import javax.lang.model.util.ElementFilter;
+import javax.tools.Diagnostic;
+import javax.tools.JavaFileObject;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.io.Writer;
+import java.util.*;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Generates the {@link BeanAccessor} for every class annotated with {@link GenerateBeanAccessor}. The accessor is also
+ * the {@link BeanFieldsTable} of the getters declared by the class, so the collector does not scan the methods of the
+ * class. The processor is not registered as a service, so it should be enabled explicitly, e.g. with the
+ * annotationProcessors option of the maven-compiler-plugin
+ *
+ * @author Andrii Frunt
+ */
+@SupportedAnnotationTypes("com.afrunt.beanmetadata.annotation.GenerateBeanAccessor")
+public class BeanAccessorProcessor extends AbstractProcessor {
+
+    @Override
+    public SourceVersion getSupportedSourceVersion() {
+        return SourceVersion.latestSupported();
+    }
+
+    @Override
+    public boolean process(Set<? extends TypeElement> annotations, RoundEnvironment roundEnv) {
+        for (Element element : roundEnv.getElementsAnnotatedWith(GenerateBeanAccessor.class)) {
+            if (element.getKind() != ElementKind.CLASS) {
+                error("Bean accessor could be generated only for classes", element);
+                continue;
+            }
+
+            TypeElement type = (TypeElement) element;
+
+            if (type.getModifiers().contains(Modifier.PRIVATE)) {
+                error("Bean accessor could not be generated for private class", element);
+                continue;
+            }
+
+            try {
+                generateAccessor(type);
+            } catch (IOException e) {
+                error("Error generating bean accessor: " + e.getMessage(), element);
+            }
+        }
+        return true;
+    }
+
+    private void generateAccessor(TypeElement type) throws IOException {
+        String packageName = processingEnv.getElementUtils().getPackageOf(type).getQualifiedName().toString();
+        String binaryName = processingEnv.getElementUtils().getBinaryName(type).toString();
+        String binarySimpleName = packageName.isEmpty() ? binaryName : binaryName.substring(packageName.length() + 1);
+        String accessorClassName = BeanAccessor.generatedClassName(packageName, binarySimpleName);
+        String accessorSimpleName = accessorClassName.substring(accessorClassName.lastIndexOf('.') + 1);
+        String beanTypeName = erasure(type.asType());
+
+        List<Field> fields = collectFields(type);
+        List<Field> declaredFields = collectDeclaredFields(type);
+
+        JavaFileObject sourceFile = processingEnv.getFiler().createSourceFile(accessorClassName, type);
+
+        try (Writer writer = sourceFile.openWriter(); PrintWriter out = new PrintWriter(writer)) {
+            if (!packageName.isEmpty()) {
+                out.println("package " + packageName + ";");
+                out.println();
+            }
+
+            out.println("@SuppressWarnings({\"unchecked\", \"rawtypes\"})");
+            out.println("public final class " + accessorSimpleName + " implements " + BeanAccessor.class.getName()
+                    + ", " + BeanFieldsTable.class.getName() + " {");
+            out.println("    private static final String[] DECLARED_GETTER_NAMES = {" + join(declaredFields, f -> quote(f.getter)) + "};");
+            out.println("    private static final String[] DECLARED_SETTER_NAMES = {" + join(declaredFields, f -> quote(f.setter)) + "};");
+            out.println("    private static final Class<?>[] DECLARED_FIELD_TYPES = {" + join(declaredFields, f -> f.typeName + ".class") + "};");
+            out.println();
+            out.println("    @Override");
+            out.println("    public int indexOf(String fieldName) {");
+            out.println("        switch (fieldName) {");
+            for (int i = 0; i < fields.size(); i++) {
+                out.println("            case \"" + fields.get(i).name + "\":");
+                out.println("                return " + i + ";");
+            }
+            out.println("            default:");
+            out.println("                return -1;");
+            out.println("        }");
+            out.println("    }");
+            out.println();
+            out.println("    @Override");
+            out.println("    public Object get(Object bean, int index) {");
+            out.println("        " + beanTypeName + " b = (" + beanTypeName + ") bean;");
+            out.println("        switch (index) {");
+            for (int i = 0; i < fields.size(); i++) {
+                out.println("            case " + i + ":");
+                out.println("                return b." + fields.get(i).getter + "();");
+            }
+            out.println("            default:");
+            out.println("                throw new com.afrunt.beanmetadata.BeanMetadataException(\"Field not found \" + index);");
+            out.println("        }");
+            out.println("    }");
+            out.println();
+            out.println("    @Override");
+            out.println("    public void set(Object bean, int index, Object value) {");
+            out.println("        " + beanTypeName + " b = (" + beanTypeName + ") bean;");
+            out.println("        switch (index) {");
+            for (int i = 0; i < fields.size(); i++) {
+                Field field = fields.get(i);
+                if (field.setter != null) {
+                    out.println("            case " + i + ":");
+                    out.println("                b." + field.setter + "((" + field.boxedTypeName + ") value);");
+                    out.println("                return;");
+                }
+            }
+            out.println("            default:");
+            out.println("                throw new com.afrunt.beanmetadata.BeanMetadataException(\"Field not found or read-only \" + index);");
+            out.println("        }");
+            out.println("    }");
+            out.println();
+            out.println("    @Override");
+            out.println("    public String[] getDeclaredGetterNames() {");
+            out.println("        return DECLARED_GETTER_NAMES.clone();");
+            out.println("    }");
+            out.println();
+            out.println("    @Override");
+            out.println("    public String[] getDeclaredSetterNames() {");
+            out.println("        return DECLARED_SETTER_NAMES.clone();");
+            out.println("    }");
+            out.println();
+            out.println("    @Override");
+            out.println("    public Class<?>[] getDeclaredFieldTypes() {");
+            out.println("        return DECLARED_FIELD_TYPES.clone();");
+            out.println("    }");
+            out.println("}");
+        }
+    }
+
+    private List<Field> collectFields(TypeElement type) {
+        List<ExecutableElement> methods = ElementFilter.methodsIn(processingEnv.getElementUtils().getAllMembers(type));
+        Map<String, Field> fields = new TreeMap<>();
+
+        for (ExecutableElement method : methods) {
+            if (isValidGetter(method)) {
+                Field field = toField(method, methods);
+                fields.put(field.name, field);
+            }
+        }
+
+        return new ArrayList<>(fields.values());
+    }
+
+    /**
+     * @return fields of the getters declared by the type in the declaration order
+     */
+    private List<Field> collectDeclaredFields(TypeElement type) {
+        List<ExecutableElement> methods = ElementFilter.methodsIn(processingEnv.getElementUtils().getAllMembers(type));
+        List<Field> fields = new ArrayList<>();
+
+        for (ExecutableElement method : ElementFilter.methodsIn(type.getEnclosedElements())) {
+            if (isValidGetter(method)) {
+                fields.add(toField(method, methods));
+            }
+        }
+
+        return fields;
+    }
+
+    private Field toField(ExecutableElement getter, List<ExecutableElement> methods) {
+        String getterName = getter.getSimpleName().toString();
+        String fieldName = uncapitalize(getterName.substring(getterName.startsWith("get") ? 3 : 2));
+        TypeMirror fieldType = getter.getReturnType();
+
+        Field field = new Field();
+        field.name = fieldName;
+        field.getter = getterName;
+        field.typeName = erasure(fieldType);
+        field.boxedTypeName = boxedErasure(fieldType);
+        field.setter = findSetter(methods, "set" + capitalize(fieldName), fieldType);
+        return field;
+    }
+
+    private boolean isValidGetter(ExecutableElement method) {
+        String name = method.getSimpleName().toString();
+        TypeMirror returnType = method.getReturnType();
+
+        boolean plainGetterName = name.startsWith("get") && name.length() > 3;
+        boolean booleanGetterName = name.startsWith("is") && name.length() > 2 && isBooleanType(returnType);
+
+        return (plainGetterName || booleanGetterName)
+                && isPublicInstanceMethod(method)
+                && returnType.getKind() != TypeKind.VOID
+                && method.getParameters().isEmpty()
+                && !isObjectMethod(method);
+    }
+
+    private String findSetter(List<ExecutableElement> methods, String setterName, TypeMirror fieldType) {
+        for (ExecutableElement method : methods) {
+            boolean validSetter = method.getSimpleName().contentEquals(setterName)
+                    && isPublicInstanceMethod(method)
+                    && method.getParameters().size() == 1
+                    && processingEnv.getTypeUtils().isSameType(
+                    processingEnv.getTypeUtils().erasure(method.getParameters().get(0).asType()),
+                    processingEnv.getTypeUtils().erasure(fieldType));
+
+            if (validSetter) {
+                return setterName;
+            }
+        }
+        return null;
+    }
+
+    private boolean isBooleanType(TypeMirror type) {
+        return type.getKind() == TypeKind.BOOLEAN || "java.lang.Boolean".equals(type.toString());
+    }
+
+    private boolean isPublicInstanceMethod(ExecutableElement method) {
+        Set<Modifier> modifiers = method.getModifiers();
+        return modifiers.contains(Modifier.PUBLIC) && !modifiers.contains(Modifier.STATIC);
+    }
+
+    private boolean isObjectMethod(ExecutableElement method) {
+        return ((TypeElement) method.getEnclosingElement()).getQualifiedName().contentEquals("java.lang.Object");
+    }
+
+    private String erasure(TypeMirror type) {
+        return processingEnv.getTypeUtils().erasure(type).toString();
+    }
+
+    private String boxedErasure(TypeMirror type) {
+        if (type.getKind().isPrimitive()) {
+            return processingEnv.getTypeUtils().boxedClass((PrimitiveType) type).getQualifiedName().toString();
+        } else {
+            return erasure(type);
+        }
+    }
+
+    private String join(List<Field> fields, Function<Field, String> mapper) {
+        return fields.stream().map(mapper).collect(Collectors.joining(", "));
+    }
+
+    private String quote(String str) {
+        return str == null ? "null" : "\"" + str + "\"";
+    }
+
+    private void error(String message, Element element) {
+        processingEnv.getMessager().printMessage(Diagnostic.Kind.ERROR, message, element);
+    }
+
+    private String capitalize(String str) {
+        return str.isEmpty() ? str : Character.toTitleCase(str.charAt(0)) + str.substring(1);
+    }
+
+    private String uncapitalize(String str) {
+        return str.isEmpty() ? str : Character.toLowerCase(str.charAt(0)) + str.substring(1);
+    }
+
+    private static class Field {
+        private String name;
+        private String getter;
+        private String setter;
+        private String typeName;
+        private String boxedTypeName;
+    }
+}
@@ -18,6 +18,11 @@
  */
 package com.afrunt.beanmetadata.test.ach;
 
+import com.afrunt.beanmetadata.BeanMetadataException;
+import com.afrunt.beanmetadata.ClassPathScanner;
+import com.afrunt.beanmetadata.MetadataSnapshot;
+import com.afrunt.beanmetadata.TypeKind;
+import com.afrunt.beanmetadata.test.ach.annotation.ACHField;
 import com.afrunt.beanmetadata.test.ach.annotation.ACHRecordType;
 import com.afrunt.beanmetadata.test.ach.domain.FileHeader;
 import com.afrunt.beanmetadata.test.ach.logic.ACHMetadataCollector;
@@ -28,6 +33,14 @@ import com.afrunt.beanmetadata.test.basic.annotation.TypeAnnotation;
 import org.junit.Assert;
 import org.junit.Test;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.lang.reflect.Proxy;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
 import java.util.Collections;
 import java.util.Date;
 import java.util.List;
@@ -103,4 +116,186 @@ public class ACHTest {
 
         assertEquals(15, fileHeader.reserved(15).length());
     }
+
+    @Test
+    public void testFieldsOrder() {
+        ACHBeanMetadata headerMetadata = new ACHMetadataCollector().collectBeanMetadata(FileHeader.class);
+        List<ACHFieldMetadata> allFieldsMetadata = headerMetadata.getFieldsMetadata();
+        List<ACHFieldMetadata> achFieldsMetadata = headerMetadata.getACHFieldsMetadata();
+
+        assertEquals(achFieldsMetadata, allFieldsMetadata.subList(0, achFieldsMetadata.size()));
+        assertSame(allFieldsMetadata, headerMetadata.getFieldsMetadata());
+    }
+
+    @Test
+    public void testAnnotatedFieldsIndex() {
+        ACHBeanMetadata headerMetadata = new ACHMetadataCollector().collectBeanMetadata(FileHeader.class);
+        List<ACHFieldMetadata> allFieldsMetadata = headerMetadata.getFieldsMetadata();
+        List<ACHFieldMetadata> achFieldsMetadata = headerMetadata.getACHFieldsMetadata();
+
+        assertEquals(13, achFieldsMetadata.size());
+        assertSame(achFieldsMetadata, headerMetadata.getACHFieldsMetadata());
+        for (int i = 1; i < achFieldsMetadata.size(); i++) {
+            assertTrue(achFieldsMetadata.get(i - 1).getStart() < achFieldsMetadata.get(i).getStart());
+        }
+
+        ACHFieldMetadata referenceCode = headerMetadata.getFieldMetadata("referenceCode");
+        referenceCode.removeAnnotation(ACHField.class);
+        assertEquals(12, headerMetadata.getACHFieldsMetadata().size());
+        assertFalse(headerMetadata.getACHFieldsMetadata().contains(referenceCode));
+        assertSame(allFieldsMetadata, headerMetadata.getFieldsMetadata());
+    }
+
+    @Test
+    public void testFieldSlots() {
+        ACHBeanMetadata headerMetadata = new ACHMetadataCollector().collectBeanMetadata(FileHeader.class);
+        ACHFieldMetadata recordTypeMetadata = headerMetadata.getFieldMetadata("recordTypeCode");
+        ACHFieldMetadata fileCreationDate = headerMetadata.getFieldMetadata("fileCreationDate");
+        FileHeader fileHeader = (FileHeader) headerMetadata.createInstance();
+        Date now = new Date();
+
+        assertEquals(0, headerMetadata.indexOf("recordTypeCode"));
+        assertEquals(recordTypeMetadata, headerMetadata.getFieldMetadata(0));
+        int fileCreationDateSlot = headerMetadata.indexOf("fileCreationDate");
+        assertEquals(fileCreationDate, headerMetadata.getFieldMetadata(fileCreationDateSlot));
+        headerMetadata.applyFieldValue(fileHeader, fileCreationDateSlot, now);
+        assertEquals(now, fileHeader.getFileCreationDate());
+        assertEquals(now, headerMetadata.getFieldValue(fileHeader, fileCreationDateSlot));
+        assertEquals(-1, headerMetadata.indexOf("wrongField"));
+
+        headerMetadata.removeFieldMetadata("nonACHField");
+        assertEquals(-1, headerMetadata.indexOf("nonACHField"));
+        assertEquals(fileCreationDate, headerMetadata.getFieldMetadata(headerMetadata.indexOf("fileCreationDate")));
+    }
+
+    @Test
+    public void testTypeKinds() {
+        ACHBeanMetadata headerMetadata = new ACHMetadataCollector().collectBeanMetadata(FileHeader.class);
+
+        assertEquals(TypeKind.INTEGER, headerMetadata.getFieldMetadata("intField").getTypeKind());
+        assertEquals(TypeKind.DATE, headerMetadata.getFieldMetadata("fileCreationDate").getTypeKind());
+        assertEquals(TypeKind.STRING, headerMetadata.getFieldMetadata("recordTypeCode").getTypeKind());
+        assertEquals(TypeKind.OTHER, headerMetadata.getTypeKind());
+    }
+
+    @Test
+    public void testPackageScanning() {
+        ACHMetadata metadata = new ACHMetadataCollector().collectMetadata("com.afrunt.beanmetadata.test.ach");
+
+        assertEquals(1, metadata.getBeansMetadata().size());
+        assertNotNull(metadata.getBeanMetadata(FileHeader.class));
+        assertEquals(1, metadata.getACHBeansMetadata().size());
+    }
+
+    @Test
+    public void testPackageScanningSkipsTruncatedClassFiles() throws IOException {
+        Path root = Files.createTempDirectory("scanned-classes");
+        Path packageDirectory = Files.createDirectories(root.resolve("broken"));
+        Path classFile = packageDirectory.resolve("FileHeader.class");
+
+        try (InputStream is = FileHeader.class.getResourceAsStream("FileHeader.class")) {
+            byte[] bytes = new byte[4096];
+            int read = is.read(bytes);
+            Files.write(classFile, Arrays.copyOf(bytes, Math.min(read, 100)));
+        }
+
+        try (URLClassLoader classLoader = new URLClassLoader(new URL[]{root.toUri().toURL()}, null)) {
+            List<Class<?>> classes = new ClassPathScanner(classLoader)
+                    .scan(Collections.singleton(ACHRecordType.class), "broken");
+            assertTrue(classes.isEmpty());
+        } finally {
+            Files.delete(classFile);
+            Files.delete(packageDirectory);
+            Files.delete(root);
+        }
+    }
+
+    @Test
+    public void testMetadataSnapshot() throws IOException {
+        Path snapshotFile = Files.createTempFile("ach-metadata", ".snapshot");
+        Files.delete(snapshotFile);
+
+        try {
+            ACHMetadata collected = new ACHMetadataCollector().collectMetadata(Collections.singleton(FileHeader.class), snapshotFile);
+            assertTrue(Files.exists(snapshotFile));
+            assertTrue(MetadataSnapshot.read(snapshotFile).isUpToDate(FileHeader.class));
+
+            ACHMetadata restored = new ACHMetadataCollector().collectMetadata(Collections.singleton(FileHeader.class), snapshotFile);
+
+            ACHBeanMetadata collectedHeader = collected.getBeanMetadata(FileHeader.class);
+            ACHBeanMetadata restoredHeader = restored.getBeanMetadata(FileHeader.class);
+
+            assertEquals(collectedHeader.getAnnotations(), restoredHeader.getAnnotations());
+            assertTrue(Proxy.getInvocationHandler(restoredHeader.getAnnotation(ACHRecordType.class)).getClass().getName()
+                    .startsWith(MetadataSnapshot.class.getName()));
+            assertEquals(collectedHeader.getFieldNames(), restoredHeader.getFieldNames());
+
+            for (ACHFieldMetadata fm : collectedHeader.getFieldsMetadata()) {
+                ACHFieldMetadata restoredFm = restoredHeader.getFieldMetadata(fm.getName());
+                assertEquals(fm.getAnnotations(), restoredFm.getAnnotations());
+                assertEquals(fm.getType(), restoredFm.getType());
+                assertEquals(fm.getGetter(), restoredFm.getGetter());
+                assertEquals(fm.isReadOnly(), restoredFm.isReadOnly());
+            }
+
+            ACHFieldMetadata recordTypeMetadata = restoredHeader.getFieldMetadata("recordTypeCode");
+            assertEquals(Collections.singletonList("1"), recordTypeMetadata.getValues());
+            assertTrue(recordTypeMetadata.isMandatory());
+            assertEquals(13, restoredHeader.getACHFieldsMetadata().size());
+        } finally {
+            Files.deleteIfExists(snapshotFile);
+        }
+    }
+
+    @Test
+    public void testMetadataSnapshotIdentityAndPruning() throws IOException {
+        Path snapshotFile = Files.createTempFile("ach-metadata", ".snapshot");
+        Files.delete(snapshotFile);
+
+        try {
+            ACHMetadataCollector collector = new ACHMetadataCollector();
+            collector.collectMetadata(Collections.singleton(FileHeader.class)).writeSnapshot(snapshotFile);
+            assertEquals("", MetadataSnapshot.read(snapshotFile).getCollectorIdentity());
+
+            collector.collectMetadata(Collections.singleton(FileHeader.class), snapshotFile);
+            MetadataSnapshot snapshot = MetadataSnapshot.read(snapshotFile);
+            assertTrue(snapshot.getCollectorIdentity().startsWith(ACHMetadataCollector.class.getName() + ":"));
+            assertEquals(Collections.singleton(FileHeader.class.getName()), snapshot.getClassNames());
+            assertTrue(snapshot.isUpToDate(FileHeader.class));
+
+            collector.collectMetadata(Collections.emptySet(), snapshotFile);
+            assertTrue(MetadataSnapshot.read(snapshotFile).getClassNames().isEmpty());
+        } finally {
+            Files.deleteIfExists(snapshotFile);
+        }
+    }
+
+    @Test
+    public void testUnreadableMetadataSnapshot() throws IOException {
+        Path snapshotFile = Files.createTempFile("ach-metadata", ".snapshot");
+
+        try {
+            ACHMetadataCollector collector = new ACHMetadataCollector();
+            collector.collectMetadata(Collections.singleton(FileHeader.class), snapshotFile);
+            byte[] snapshot = Files.readAllBytes(snapshotFile);
+
+            Files.write(snapshotFile, Arrays.copyOf(snapshot, snapshot.length / 2));
+            assertNotNull(collector.collectMetadata(Collections.singleton(FileHeader.class), snapshotFile).getBeanMetadata(FileHeader.class));
+            assertTrue(MetadataSnapshot.read(snapshotFile).isUpToDate(FileHeader.class));
+
+            byte[] oldVersion = snapshot.clone();
+            oldVersion[5] = 1;
+            Files.write(snapshotFile, oldVersion);
+            try {
+                MetadataSnapshot.read(snapshotFile);
+                fail("Exception should be thrown");
+            } catch (BeanMetadataException e) {
+                //expected
+            }
+            assertNotNull(collector.collectMetadata(Collections.singleton(FileHeader.class), snapshotFile).getBeanMetadata(FileHeader.class));
+            assertArrayEquals(snapshot, Files.readAllBytes(snapshotFile));
+        } finally {
+            Files.deleteIfExists(snapshotFile);
+        }
+    }
 }
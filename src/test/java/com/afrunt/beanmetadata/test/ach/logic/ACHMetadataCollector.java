@@ -19,12 +19,16 @@
 package com.afrunt.beanmetadata.test.ach.logic;
 
 import com.afrunt.beanmetadata.MetadataCollector;
+import com.afrunt.beanmetadata.test.ach.annotation.ACHRecordType;
 import com.afrunt.beanmetadata.test.ach.exception.ACHException;
 import com.afrunt.beanmetadata.test.ach.metadata.ACHBeanMetadata;
 import com.afrunt.beanmetadata.test.ach.metadata.ACHFieldMetadata;
 import com.afrunt.beanmetadata.test.ach.metadata.ACHMetadata;
 
+import java.lang.annotation.Annotation;
 import java.text.SimpleDateFormat;
+import java.util.Collection;
+import java.util.Collections;
 
 /**
  * @author Andrii Frunt
@@ -45,6 +49,11 @@ public class ACHMetadataCollector extends MetadataCollector<ACHMetadata, ACHBean
         return new ACHFieldMetadata();
     }
 
+    @Override
+    protected Collection<Class<? extends Annotation>> scannedAnnotationTypes() {
+        return Collections.singletonList(ACHRecordType.class);
+    }
+
     @Override
     protected void validateFieldMetadata(ACHFieldMetadata fm) {
         super.validateFieldMetadata(fm);
@@ -21,6 +21,7 @@ package com.afrunt.beanmetadata.test.ach.metadata;
 import com.afrunt.beanmetadata.BeanMetadata;
 import com.afrunt.beanmetadata.test.ach.annotation.ACHField;
 
+import java.util.Comparator;
 import java.util.List;
 
 /**
@@ -31,4 +32,11 @@ public class ACHBeanMetadata extends BeanMetadata<ACHFieldMetadata> {
         return getFieldsAnnotatedWith(ACHField.class);
     }
 
+    @Override
+    protected Comparator<? super ACHFieldMetadata> fieldsOrder() {
+        return Comparator.comparing((ACHFieldMetadata fm) -> !fm.isAnnotatedWith(ACHField.class))
+                .thenComparingInt(fm -> fm.isAnnotatedWith(ACHField.class) ? fm.getStart() : 0)
+                .thenComparing(ACHFieldMetadata::getName);
+    }
+
 }
@@ -19,19 +19,29 @@
 package com.afrunt.beanmetadata.test.basic;
 
 import com.afrunt.beanmetadata.BasicMetadataCollector;
+import com.afrunt.beanmetadata.BeanAccessor;
+import com.afrunt.beanmetadata.BeanCopier;
 import com.afrunt.beanmetadata.BeanMetadata;
+import com.afrunt.beanmetadata.BeanMetadataException;
+import com.afrunt.beanmetadata.CollectionPhase;
 import com.afrunt.beanmetadata.FieldMetadata;
 import com.afrunt.beanmetadata.Metadata;
+import com.afrunt.beanmetadata.TypeKind;
 import com.afrunt.beanmetadata.test.basic.annotation.AnotherFieldAnnotation;
 import com.afrunt.beanmetadata.test.basic.annotation.FieldAnnotation;
 import com.afrunt.beanmetadata.test.basic.annotation.TypeAnnotation;
+import com.afrunt.beanmetadata.test.basic.domain.BaseBean;
 import com.afrunt.beanmetadata.test.basic.domain.Bean;
 import com.afrunt.beanmetadata.test.basic.domain.ChildBean;
+import com.afrunt.beanmetadata.test.basic.domain.ConversionBean;
+import com.afrunt.beanmetadata.test.basic.domain.PackagePrivateTypeBean;
 import com.afrunt.beanmetadata.test.basic.domain.SecondBean;
 import org.junit.Test;
 
 import java.lang.annotation.Annotation;
+import java.math.BigDecimal;
 import java.util.*;
+import java.util.stream.Collectors;
 
 import static org.junit.Assert.*;
 
@@ -55,6 +65,35 @@ public class BasicMetadataCollectorTest extends BasicTest {
 
     }
 
+    @Test
+    public void testMetadataIndexes() {
+        Metadata<BeanMetadata<FieldMetadata>, FieldMetadata> metadata = getMetadata();
+        Set<BeanMetadata<FieldMetadata>> beansMetadata = metadata.getBeansMetadata();
+
+        assertSame(metadata.getAnnotatedWith(TypeAnnotation.class), metadata.getAnnotatedWith(TypeAnnotation.class));
+        assertTrue(metadata.getAnnotatedWith(FieldAnnotation.class).isEmpty());
+        assertNotNull(metadata.getBeanMetadata(Bean.class));
+        assertNull(metadata.getBeanMetadata(ChildBean.class));
+
+        try {
+            beansMetadata.clear();
+            fail("Exception should be thrown");
+        } catch (UnsupportedOperationException e) {
+            assertEquals(2, metadata.getBeansMetadata().size());
+        }
+    }
+
+    @Test
+    public void testNearestSupertypeResolution() {
+        Metadata<BeanMetadata<FieldMetadata>, FieldMetadata> metadata = getMetadata();
+
+        assertSame(metadata.getBeanMetadata(Bean.class), metadata.resolveFor(ChildBean.class));
+        assertSame(metadata.getBeanMetadata(Bean.class), metadata.resolveFor(Bean.class));
+        assertSame(metadata.resolveFor(ChildBean.class), metadata.resolveFor(ChildBean.class));
+        assertNull(metadata.resolveFor(BaseBean.class));
+        assertNull(metadata.resolveFor(String.class));
+    }
+
     @Test
     public void testBeanMetadataCollection() {
         BasicMetadataCollector metadataCollector = new BasicMetadataCollector();
@@ -75,6 +114,130 @@ public class BasicMetadataCollectorTest extends BasicTest {
         assertTrue(id.isString());
     }
 
+    @Test
+    public void testCompactAnnotations() {
+        BeanMetadata<FieldMetadata> beanMetadata = new BasicMetadataCollector().collectBeanMetadata(Bean.class);
+        FieldMetadata id = beanMetadata.getFieldMetadata("id");
+
+        try {
+            id.getAnnotationsMap().remove(FieldAnnotation.class);
+            fail("Exception should be thrown");
+        } catch (UnsupportedOperationException e) {
+            assertTrue(id.isAnnotatedWith(FieldAnnotation.class));
+        }
+
+        id.removeAnnotation(FieldAnnotation.class);
+        assertTrue(id.notAnnotatedWith(FieldAnnotation.class));
+        assertTrue(id.isAnnotatedWith(AnotherFieldAnnotation.class));
+    }
+
+    @Test
+    public void testFieldMethodHandles() {
+        BeanMetadata<FieldMetadata> beanMetadata = new BasicMetadataCollector().collectBeanMetadata(Bean.class);
+        FieldMetadata id = beanMetadata.getFieldMetadata("id");
+        FieldMetadata primitiveIntField = beanMetadata.getFieldMetadata("primitiveIntField");
+        Bean bean = new Bean();
+
+        assertNotNull(id.getGetterHandle());
+        assertNotNull(id.getSetterHandle());
+
+        primitiveIntField.applyValue(bean, 5);
+        assertEquals(5, bean.getPrimitiveIntField());
+        assertEquals(5, primitiveIntField.getValue(bean));
+    }
+
+    @Test
+    public void testFieldFunctions() {
+        BeanMetadata<FieldMetadata> beanMetadata = new BasicMetadataCollector().collectBeanMetadata(Bean.class);
+        FieldMetadata id = beanMetadata.getFieldMetadata("id");
+        FieldMetadata primitiveIntField = beanMetadata.getFieldMetadata("primitiveIntField");
+        Bean bean = new Bean().setPrimitiveIntField(5);
+
+        assertNotNull(id.getGetterFunction());
+        assertNotNull(id.getSetterFunction());
+        id.getSetterFunction().accept(bean, "functionId");
+        assertEquals("functionId", id.getGetterFunction().apply(bean));
+        assertEquals(5, primitiveIntField.getGetterFunction().apply(bean));
+    }
+
+    @Test
+    public void testFieldFunctionsWithPackagePrivateTypes() {
+        BeanMetadata<FieldMetadata> beanMetadata = new BasicMetadataCollector()
+                .setRuntimeAccessorsEnabled(false)
+                .collectBeanMetadata(PackagePrivateTypeBean.class);
+        FieldMetadata value = beanMetadata.getFieldMetadata("value");
+        Object fieldValue = PackagePrivateTypeBean.newValue();
+        PackagePrivateTypeBean bean = new PackagePrivateTypeBean();
+
+        value.getSetterFunction().accept(bean, fieldValue);
+        assertSame(fieldValue, value.getGetterFunction().apply(bean));
+        assertSame(fieldValue, beanMetadata.beanToMap(bean).get("value"));
+    }
+
+    @Test
+    public void testPrimitiveFieldAccess() {
+        BeanMetadata<FieldMetadata> beanMetadata = new BasicMetadataCollector().collectBeanMetadata(Bean.class);
+        FieldMetadata primitiveIntField = beanMetadata.getFieldMetadata("primitiveIntField");
+        Bean bean = new Bean();
+
+        primitiveIntField.setInt(bean, 6);
+        assertEquals(6, primitiveIntField.getInt(bean));
+        assertEquals(6L, primitiveIntField.getLong(bean));
+        assertEquals(6.0, primitiveIntField.getDouble(bean), 0);
+        beanMetadata.setInt(bean, "primitiveIntField", 7);
+        assertEquals(7, beanMetadata.getInt(bean, "primitiveIntField"));
+
+        try {
+            beanMetadata.getBoolean(bean, "primitiveIntField");
+            fail("Exception should be thrown");
+        } catch (BeanMetadataException e) {
+            assertEquals(7, bean.getPrimitiveIntField());
+        }
+    }
+
+    @Test
+    public void testNumericFieldsAreNotNarrowed() {
+        BeanMetadata<FieldMetadata> beanMetadata = new BasicMetadataCollector().collectBeanMetadata(ConversionBean.class);
+        ConversionBean bean = new ConversionBean()
+                .setIntegerField(3)
+                .setLongField(Long.MAX_VALUE)
+                .setDecimalField(new BigDecimal("1.5"));
+
+        assertEquals(3, beanMetadata.getInt(bean, "integerField"));
+        assertEquals(3L, beanMetadata.getLong(bean, "integerField"));
+        assertEquals(Long.MAX_VALUE, beanMetadata.getLong(bean, "longField"));
+        assertEquals(1.5, beanMetadata.getDouble(bean, "decimalField"), 0);
+
+        for (String fieldName : Arrays.asList("longField", "decimalField")) {
+            try {
+                beanMetadata.getInt(bean, fieldName);
+                fail("Exception should be thrown for " + fieldName);
+            } catch (BeanMetadataException e) {
+                //Expected
+            }
+        }
+
+        try {
+            beanMetadata.getLong(bean, "decimalField");
+            fail("Exception should be thrown");
+        } catch (BeanMetadataException e) {
+            //Expected
+        }
+    }
+
+    @Test
+    public void testTypeClassification() {
+        BeanMetadata<FieldMetadata> beanMetadata = new BasicMetadataCollector().collectBeanMetadata(Bean.class);
+        FieldMetadata primitiveIntField = beanMetadata.getFieldMetadata("primitiveIntField");
+
+        assertEquals(TypeKind.INTEGER, primitiveIntField.getTypeKind());
+        assertTrue(primitiveIntField.isInteger());
+        assertFalse(primitiveIntField.isNumber());
+        assertFalse(primitiveIntField.isFractional());
+        assertEquals(TypeKind.STRING, beanMetadata.getFieldMetadata("id").getTypeKind());
+        assertEquals(TypeKind.OTHER, beanMetadata.getTypeKind());
+    }
+
     @Test
     public void testBeanCreationFromMap() {
         BasicMetadataCollector metadataCollector = new BasicMetadataCollector();
@@ -113,6 +276,427 @@ public class BasicMetadataCollectorTest extends BasicTest {
         assertEquals(777, childBeanMap.get("primitiveIntField"));
     }
 
+    @Test
+    public void testInstancesCreation() {
+        BeanMetadata<FieldMetadata> beanMetadata = new BasicMetadataCollector().collectBeanMetadata(Bean.class);
+
+        List<Object> instances = beanMetadata.createInstances(2);
+        assertEquals(2, instances.size());
+        assertNotSame(instances.get(0), instances.get(1));
+        assertTrue(beanMetadata.typeIs(instances.get(1).getClass()));
+        assertNotSame(beanMetadata.createInstance(), beanMetadata.createInstance());
+    }
+
+    @Test
+    public void testBeanCreationFromArray() {
+        BeanMetadata<FieldMetadata> beanMetadata = new BasicMetadataCollector().collectBeanMetadata(Bean.class);
+
+        Object[] values = new Object[3];
+        values[beanMetadata.indexOf("id")] = "arrayId";
+        values[beanMetadata.indexOf("primitiveIntField")] = 2;
+        values[beanMetadata.indexOf("value")] = 3;
+        Bean beanFromArray = beanMetadata.beanFromArray(Bean.class, values);
+        assertEquals("arrayId", beanFromArray.getId());
+        assertEquals(2, beanFromArray.getPrimitiveIntField());
+        assertNull(beanFromArray.getValue());
+    }
+
+    @Test
+    public void testSubclassBeanToMap() {
+        BeanMetadata<FieldMetadata> beanMetadata = new BasicMetadataCollector().collectBeanMetadata(Bean.class);
+
+        ChildBean cb = new ChildBean();
+        cb.setId("id");
+        cb.setValue("value");
+
+        assertEquals("value", beanMetadata.beanToMap(cb).get("value"));
+
+        cb.setValue("anotherValue");
+        Map<String, Object> childBeanMap = beanMetadata.beanToMap(cb);
+        assertEquals("anotherValue", childBeanMap.get("value"));
+        assertEquals(777, childBeanMap.get("primitiveIntField"));
+
+        beanMetadata.removeFieldMetadata("value");
+        childBeanMap = beanMetadata.beanToMap(cb);
+        assertEquals(2, childBeanMap.size());
+        assertEquals("id", childBeanMap.get("id"));
+        assertEquals(777, childBeanMap.get("primitiveIntField"));
+    }
+
+    @Test
+    public void testBeanCopy() {
+        BasicMetadataCollector metadataCollector = new BasicMetadataCollector();
+        BeanMetadata<FieldMetadata> beanMetadata = metadataCollector.collectBeanMetadata(Bean.class);
+
+        ChildBean source = new ChildBean();
+        source.setId("id");
+        source.setValue("value");
+
+        Bean target = beanMetadata.copy(source, new Bean());
+        assertEquals("id", target.getId());
+        assertEquals("value", target.getValue());
+        assertEquals(777, target.getPrimitiveIntField());
+
+        BeanCopier beanCopier = beanMetadata.copierTo(metadataCollector.collectBeanMetadata(SecondBean.class));
+        assertEquals(new HashSet<>(Arrays.asList("id", "value")), new HashSet<>(beanCopier.getFieldNames()));
+        SecondBean secondBean = beanCopier.copy(source, new SecondBean());
+        assertEquals("value", secondBean.getValue());
+
+        try {
+            beanCopier.copy(new SecondBean(), new SecondBean());
+            fail("Exception should be thrown");
+        } catch (BeanMetadataException e) {
+            //expected
+        }
+    }
+
+    @Test
+    public void testBeanMapView() {
+        BasicMetadataCollector metadataCollector = new BasicMetadataCollector();
+        BeanMetadata<FieldMetadata> beanMetadata = metadataCollector.collectBeanMetadata(Bean.class);
+
+        ChildBean bean = new ChildBean();
+        bean.setId("id");
+
+        Map<String, Object> map = beanMetadata.asMap(bean);
+        assertEquals(3, map.size());
+        assertEquals("id", map.get("id"));
+        assertEquals(777, map.get("primitiveIntField"));
+        assertNull(map.get("wrongField"));
+        assertFalse(map.containsKey("wrongField"));
+
+        assertNull(map.put("value", "value"));
+        assertEquals("value", bean.getValue());
+        assertEquals(beanMetadata.beanToMap(bean), new HashMap<>(map));
+
+        try {
+            map.put("primitiveIntField", null);
+            fail("Exception should be thrown");
+        } catch (BeanMetadataException e) {
+            //expected
+        }
+
+        try {
+            map.remove("id");
+            fail("Exception should be thrown");
+        } catch (UnsupportedOperationException e) {
+            assertEquals("id", bean.getId());
+        }
+    }
+
+    @Test
+    public void testAnnotationsChanges() {
+        BeanMetadata<FieldMetadata> beanMetadata = new BasicMetadataCollector().collectBeanMetadata(Bean.class);
+        FieldMetadata id = beanMetadata.getFieldMetadata("id");
+        FieldAnnotation fieldAnnotation = id.getAnnotation(FieldAnnotation.class);
+        assertTrue(beanMetadata.getFieldsAnnotatedWith(FieldAnnotation.class).contains(id));
+
+        assertEquals(Collections.singleton(fieldAnnotation), id.removeAnnotations(Collections.singletonList(FieldAnnotation.class)));
+        assertTrue(id.notAnnotatedWith(FieldAnnotation.class));
+        assertFalse(beanMetadata.getFieldsAnnotatedWith(FieldAnnotation.class).contains(id));
+        assertTrue(id.isAnnotatedWith(AnotherFieldAnnotation.class));
+
+        id.addAnnotations(Collections.singletonList(fieldAnnotation));
+        id.compactAnnotations();
+        assertTrue(id.isAnnotatedWithAll(FieldAnnotation.class, AnotherFieldAnnotation.class));
+        assertEquals(2, id.getAnnotations().size());
+    }
+
+    @Test
+    public void testSharedFieldAnnotationsChanges() {
+        BasicMetadataCollector metadataCollector = new BasicMetadataCollector();
+        BeanMetadata<FieldMetadata> beanMetadata = metadataCollector.collectBeanMetadata(Bean.class);
+        BeanMetadata<FieldMetadata> secondBeanMetadata = metadataCollector.collectBeanMetadata(SecondBean.class);
+        FieldMetadata value = beanMetadata.getFieldMetadata("value");
+
+        secondBeanMetadata.removeFieldMetadata("value");
+        secondBeanMetadata.addFieldMetadata(value);
+        assertTrue(beanMetadata.getFieldsAnnotatedWith(FieldAnnotation.class).contains(value));
+        assertTrue(secondBeanMetadata.getFieldsAnnotatedWith(FieldAnnotation.class).contains(value));
+
+        value.removeAnnotation(FieldAnnotation.class);
+        assertFalse(beanMetadata.getFieldsAnnotatedWith(FieldAnnotation.class).contains(value));
+        assertFalse(secondBeanMetadata.getFieldsAnnotatedWith(FieldAnnotation.class).contains(value));
+
+        value.addAnnotations(Collections.singletonList(beanMetadata.getFieldMetadata("id").getAnnotation(FieldAnnotation.class)));
+        assertTrue(beanMetadata.getFieldsAnnotatedWith(FieldAnnotation.class).contains(value));
+        assertTrue(secondBeanMetadata.getFieldsAnnotatedWith(FieldAnnotation.class).contains(value));
+    }
+
+    @Test
+    public void testFrozenMetadata() {
+        BasicMetadataCollector metadataCollector = new BasicMetadataCollector();
+        Metadata<BeanMetadata<FieldMetadata>, FieldMetadata> siblingMetadata = metadataCollector
+                .collectMetadata(Collections.singletonList(Bean.class));
+        Metadata<BeanMetadata<FieldMetadata>, FieldMetadata> metadata = metadataCollector
+                .collectMetadata(Arrays.asList(Bean.class, ChildBean.class))
+                .freeze();
+
+        assertTrue(metadata.isFrozen());
+        BeanMetadata<FieldMetadata> beanMetadata = metadata.getBeanMetadata(Bean.class);
+        assertTrue(beanMetadata.isFrozen());
+        assertFalse(siblingMetadata.isFrozen());
+        assertSame(beanMetadata, siblingMetadata.getBeanMetadata(Bean.class));
+        FieldMetadata id = beanMetadata.getFieldMetadata("id");
+        assertTrue(id.isFrozen());
+
+        try {
+            metadata.setBeansMetadata(new HashSet<>());
+            fail("Exception should be thrown");
+        } catch (BeanMetadataException e) {
+            assertEquals(2, metadata.getBeansMetadata().size());
+        }
+
+        try {
+            beanMetadata.removeFieldMetadata("id");
+            fail("Exception should be thrown");
+        } catch (BeanMetadataException e) {
+            assertTrue(beanMetadata.hasField("id"));
+        }
+
+        try {
+            id.removeAnnotation(FieldAnnotation.class);
+            fail("Exception should be thrown");
+        } catch (BeanMetadataException e) {
+            assertTrue(id.isAnnotatedWith(FieldAnnotation.class));
+        }
+
+        Bean bean = beanMetadata.beanFromMap(Bean.class, Collections.singletonMap("id", "id"));
+        assertEquals("id", beanMetadata.getFieldValue(bean, "id"));
+        assertNotNull(metadataCollector.collectBeanMetadata(SecondBean.class));
+
+        BeanMetadata<FieldMetadata> recollectedBeanMetadata = metadataCollector.collectBeanMetadata(Bean.class);
+        assertNotSame(beanMetadata, recollectedBeanMetadata);
+        assertFalse(recollectedBeanMetadata.isFrozen());
+        assertSame(recollectedBeanMetadata, metadataCollector.collectBeanMetadata(Bean.class));
+        recollectedBeanMetadata.removeFieldMetadata("id");
+        assertFalse(recollectedBeanMetadata.hasField("id"));
+        assertTrue(beanMetadata.hasField("id"));
+    }
+
+    @Test
+    public void testBeanMetadataCache() {
+        BasicMetadataCollector metadataCollector = new BasicMetadataCollector();
+        BeanMetadata<FieldMetadata> beanMetadata = metadataCollector.collectBeanMetadata(Bean.class);
+
+        assertSame(beanMetadata, metadataCollector.collectBeanMetadata(Bean.class));
+
+        metadataCollector.invalidate(Bean.class);
+        BeanMetadata<FieldMetadata> recollected = metadataCollector.collectBeanMetadata(Bean.class);
+        assertNotSame(beanMetadata, recollected);
+        assertSame(recollected, metadataCollector.collectBeanMetadata(Bean.class));
+
+        metadataCollector.invalidateAll();
+        assertNotSame(recollected, metadataCollector.collectBeanMetadata(Bean.class));
+
+        metadataCollector.setCacheEnabled(false);
+        assertNotSame(metadataCollector.collectBeanMetadata(Bean.class), metadataCollector.collectBeanMetadata(Bean.class));
+    }
+
+    @Test
+    public void testParallelMetadataCollection() {
+        Metadata<BeanMetadata<FieldMetadata>, FieldMetadata> sequential = new BasicMetadataCollector().collectMetadata(classes());
+        Metadata<BeanMetadata<FieldMetadata>, FieldMetadata> parallel = new BasicMetadataCollector().collectMetadataInParallel(classes());
+
+        assertEquals(sequential.getBeansMetadata().size(), parallel.getBeansMetadata().size());
+
+        for (BeanMetadata<FieldMetadata> bm : sequential.getBeansMetadata()) {
+            BeanMetadata<FieldMetadata> parallelBm = parallel.getBeanMetadata(bm.getType());
+            assertNotNull(parallelBm);
+            assertEquals(bm.getAnnotations(), parallelBm.getAnnotations());
+            assertEquals(bm.getFieldNames(), parallelBm.getFieldNames());
+        }
+    }
+
+    @Test
+    public void testRuntimeBeanAccessor() {
+        BasicMetadataCollector metadataCollector = new BasicMetadataCollector();
+        BeanMetadata<FieldMetadata> beanMetadata = metadataCollector.collectBeanMetadata(ChildBean.class);
+
+        BeanAccessor beanAccessor = beanMetadata.getBeanAccessor();
+        assertNotNull(beanAccessor);
+        assertEquals(-1, beanAccessor.indexOf("wrongField"));
+
+        ChildBean bean = new ChildBean();
+        beanAccessor.set(bean, beanAccessor.indexOf("id"), "id");
+        beanAccessor.set(bean, beanAccessor.indexOf("primitiveIntField"), 1);
+        assertEquals("id", bean.getId());
+        assertEquals("id", beanAccessor.get(bean, beanAccessor.indexOf("id")));
+        assertEquals(777, beanAccessor.get(bean, beanAccessor.indexOf("primitiveIntField")));
+        assertEquals(777, beanMetadata.beanToMap(bean).get("primitiveIntField"));
+
+        try {
+            beanAccessor.get(bean, 1000);
+            fail("Exception should be thrown");
+        } catch (BeanMetadataException e) {
+            //expected
+        }
+
+        metadataCollector = new BasicMetadataCollector();
+        metadataCollector.setRuntimeAccessorsEnabled(false);
+        assertNull(metadataCollector.collectBeanMetadata(ChildBean.class).getBeanAccessor());
+    }
+
+    @Test
+    public void testRuntimeBeanAccessorWithPackagePrivateTypes() {
+        BeanMetadata<FieldMetadata> beanMetadata = new BasicMetadataCollector().collectBeanMetadata(PackagePrivateTypeBean.class);
+        assertNull(beanMetadata.getBeanAccessor());
+
+        Object value = PackagePrivateTypeBean.newValue();
+        PackagePrivateTypeBean bean = beanMetadata.beanFromMap(PackagePrivateTypeBean.class, Collections.singletonMap("value", value));
+        assertSame(value, beanMetadata.getFieldValue(bean, "value"));
+        assertSame(value, beanMetadata.beanToMap(bean).get("value"));
+    }
+
+    @Test
+    public void testDefaultFieldsOrder() {
+        BasicMetadataCollector metadataCollector = new BasicMetadataCollector();
+        List<String> expectedOrder = Arrays.asList("id", "value", "primitiveIntField");
+
+        for (Class<?> cl : Arrays.asList(Bean.class, ChildBean.class)) {
+            BeanMetadata<FieldMetadata> beanMetadata = metadataCollector.collectBeanMetadata(cl);
+            assertEquals(expectedOrder, beanMetadata.getFieldsMetadata().stream()
+                    .map(FieldMetadata::getName)
+                    .collect(Collectors.toList()));
+            assertEquals(1, beanMetadata.indexOf("value"));
+        }
+    }
+
+    @Test
+    public void testOrderedFieldsIteration() {
+        BeanMetadata<FieldMetadata> beanMetadata = new BasicMetadataCollector().collectBeanMetadata(Bean.class);
+
+        List<String> fieldNames = new ArrayList<>();
+        beanMetadata.forEachField(fm -> fieldNames.add(fm.getName()));
+        assertEquals(new ArrayList<>(beanMetadata.getFieldNames()), fieldNames);
+        assertSame(beanMetadata.getFieldsMetadata(), beanMetadata.getFieldsMetadata());
+
+        try {
+            beanMetadata.getFieldsMetadata().clear();
+            fail("Exception should be thrown");
+        } catch (UnsupportedOperationException e) {
+            assertEquals(3, beanMetadata.getFieldsMetadata().size());
+        }
+    }
+
+    @Test
+    public void testBeanAccessorCreatedForReturnedBeans() {
+        HierarchyMetadataCollector metadataCollector = new HierarchyMetadataCollector();
+        BeanMetadata<FieldMetadata> childBeanMetadata = metadataCollector.collectBeanMetadata(ChildBean.class);
+
+        assertNotNull(childBeanMetadata.getBeanAccessor());
+        assertNull(metadataCollector.hierarchy(ChildBean.class).getBeanAccessor());
+        assertNull(metadataCollector.hierarchy(Bean.class).getBeanAccessor());
+
+        assertNotNull(metadataCollector.collectBeanMetadata(Bean.class).getBeanAccessor());
+    }
+
+    @Test
+    public void testSuperclassMetadataReuse() {
+        HierarchyMetadataCollector metadataCollector = new HierarchyMetadataCollector();
+        BeanMetadata<FieldMetadata> baseBeanMetadata = metadataCollector.collectBeanMetadata(BaseBean.class);
+        BeanMetadata<FieldMetadata> beanMetadata = metadataCollector.collectBeanMetadata(Bean.class);
+        BeanMetadata<FieldMetadata> childBeanMetadata = metadataCollector.collectBeanMetadata(ChildBean.class);
+        BeanMetadata<FieldMetadata> secondBeanMetadata = metadataCollector.collectBeanMetadata(SecondBean.class);
+
+        BeanMetadata<FieldMetadata> beanHierarchy = metadataCollector.hierarchy(Bean.class);
+        BeanMetadata<FieldMetadata> childBeanHierarchy = metadataCollector.hierarchy(ChildBean.class);
+        assertSame(beanHierarchy.getFieldMetadata("value"), childBeanHierarchy.getFieldMetadata("value"));
+        assertNotSame(beanHierarchy.getFieldMetadata("primitiveIntField"), childBeanHierarchy.getFieldMetadata("primitiveIntField"));
+        assertNotSame(beanHierarchy, beanMetadata);
+        assertNotSame(beanHierarchy.getFieldMetadata("value"), beanMetadata.getFieldMetadata("value"));
+        assertNotSame(beanMetadata.getFieldMetadata("value"), childBeanMetadata.getFieldMetadata("value"));
+        assertEquals(Bean.class.getName(), childBeanMetadata.getFieldMetadata("value").getBeanClassName());
+        assertEquals("bean", childBeanMetadata.getAnnotation(TypeAnnotation.class).value());
+
+        assertTrue(baseBeanMetadata.getFieldMetadata("id").isAnnotatedWith(AnotherFieldAnnotation.class));
+        assertFalse(secondBeanMetadata.getFieldMetadata("id").isAnnotatedWith(AnotherFieldAnnotation.class));
+        assertTrue(secondBeanMetadata.getFieldMetadata("id").isAnnotatedWith(FieldAnnotation.class));
+    }
+
+    @Test
+    public void testClassHierarchyHook() {
+        List<Class<?>> collectedClasses = new ArrayList<>();
+        BasicMetadataCollector metadataCollector = new BasicMetadataCollector() {
+            @Override
+            protected BeanMetadata<FieldMetadata> collectBeanMetadataFromClassHierarchy(List<Class<?>> hierarchy, BeanMetadata<FieldMetadata> typeMetadata) {
+                collectedClasses.addAll(hierarchy);
+                return super.collectBeanMetadataFromClassHierarchy(hierarchy, typeMetadata);
+            }
+        };
+
+        metadataCollector.collectBeanMetadata(ChildBean.class);
+        metadataCollector.collectBeanMetadata(Bean.class);
+        assertEquals(Arrays.asList(BaseBean.class, Bean.class, ChildBean.class), collectedClasses);
+    }
+
+    @Test
+    public void testHierarchyMetadataIsolation() {
+        HierarchyMetadataCollector metadataCollector = new HierarchyMetadataCollector();
+        BeanMetadata<FieldMetadata> beanMetadata = metadataCollector.collectBeanMetadata(Bean.class);
+
+        beanMetadata.removeFieldMetadata("value");
+        beanMetadata.getFieldMetadata("id").removeAllAnnotations();
+
+        BeanMetadata<FieldMetadata> childBeanMetadata = metadataCollector.collectBeanMetadata(ChildBean.class);
+        assertEquals(new HashSet<>(Arrays.asList("id", "value", "primitiveIntField")), childBeanMetadata.getFieldNames());
+        assertTrue(childBeanMetadata.getFieldMetadata("id").isAnnotatedWith(FieldAnnotation.class));
+        assertTrue(metadataCollector.hierarchy(Bean.class).hasField("value"));
+
+        metadataCollector.skippedFields.add("value");
+        metadataCollector.invalidate(BaseBean.class);
+
+        assertFalse(metadataCollector.collectBeanMetadata(Bean.class).hasField("value"));
+        assertFalse(metadataCollector.collectBeanMetadata(ChildBean.class).hasField("value"));
+    }
+
+    @Test
+    public void testLazyFieldsCollection() {
+        BasicMetadataCollector metadataCollector = new BasicMetadataCollector();
+        metadataCollector.setLazyFieldsEnabled(true);
+
+        Metadata<BeanMetadata<FieldMetadata>, FieldMetadata> metadata = metadataCollector.collectMetadata(classes());
+        assertEquals(2, metadata.getAnnotatedWith(TypeAnnotation.class).size());
+
+        BeanMetadata<FieldMetadata> beanMetadata = metadata.getBeanMetadata(Bean.class);
+        assertFalse(beanMetadata.isFieldsLoaded());
+        assertEquals("bean", beanMetadata.getAnnotation(TypeAnnotation.class).value());
+
+        assertEquals(3, beanMetadata.getFieldsMetadata().size());
+        assertTrue(beanMetadata.isFieldsLoaded());
+        assertTrue(beanMetadata.getFieldMetadata("id").isAnnotatedWithAll(FieldAnnotation.class, AnotherFieldAnnotation.class));
+
+        BeanMetadata<FieldMetadata> secondBeanMetadata = metadata.getBeanMetadata(SecondBean.class);
+        assertEquals("secondBean", secondBeanMetadata.getAnnotation(TypeAnnotation.class).value());
+        assertFalse(secondBeanMetadata.getFieldMetadata("id").isAnnotatedWith(AnotherFieldAnnotation.class));
+    }
+
+    @Test
+    public void testCollectionListener() {
+        Map<CollectionPhase, Integer> counts = new EnumMap<>(CollectionPhase.class);
+        Set<Class<?>> hierarchyClasses = new HashSet<>();
+
+        BasicMetadataCollector metadataCollector = new BasicMetadataCollector();
+        metadataCollector.addCollectionListener((beanClass, phase, durationNanos, count) -> {
+            assertTrue(durationNanos >= 0);
+            counts.merge(phase, count, Integer::sum);
+            if (phase == CollectionPhase.HIERARCHY) {
+                hierarchyClasses.add(beanClass);
+            }
+        });
+
+        metadataCollector.collectMetadata(classes());
+
+        assertEquals(new HashSet<>(Arrays.asList(BaseBean.class, Bean.class, SecondBean.class)), hierarchyClasses);
+        assertTrue(counts.get(CollectionPhase.SKIP_CLASS) >= 2);
+        assertEquals(2, (int) counts.get(CollectionPhase.BEAN_VALIDATION));
+        assertEquals(5, (int) counts.get(CollectionPhase.FIELD_VALIDATION));
+        assertTrue(counts.get(CollectionPhase.GETTER_SCAN) > 0);
+        assertTrue(counts.get(CollectionPhase.SETTER_RESOLUTION) > 0);
+        assertTrue(counts.containsKey(CollectionPhase.REMOVE_ANNOTATIONS));
+        assertTrue(counts.containsKey(CollectionPhase.ADD_ANNOTATIONS));
+    }
+
     private void testBeanMetadata(BeanMetadata<FieldMetadata> bm) {
         assertNotNull(bm);
         TypeAnnotation typeAnnotation = bm.getAnnotation(TypeAnnotation.class);
@@ -157,4 +741,17 @@ public class BasicMetadataCollectorTest extends BasicTest {
     protected Collection<Class<?>> classes() {
         return Arrays.asList(Bean.class, SecondBean.class);
     }
+
+    private static class HierarchyMetadataCollector extends BasicMetadataCollector {
+        private final Set<String> skippedFields = new HashSet<>();
+
+        private BeanMetadata<FieldMetadata> hierarchy(Class<?> cl) {
+            return hierarchyMetadata(cl);
+        }
+
+        @Override
+        protected boolean skipFieldMetadata(FieldMetadata fieldMetadata) {
+            return skippedFields.contains(fieldMetadata.getName());
+        }
+    }
 }
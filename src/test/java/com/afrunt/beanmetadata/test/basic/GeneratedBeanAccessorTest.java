@@ -0,0 +1,76 @@
+package com.afrunt.beanmetadata.test.basic;
+
+import com.afrunt.beanmetadata.BeanAccessor;
+import com.afrunt.beanmetadata.BeanFieldsTable;
+import com.afrunt.beanmetadata.BeanMetadata;
+import com.afrunt.beanmetadata.FieldMetadata;
+import com.afrunt.beanmetadata.annotation.GenerateBeanAccessor;
+import com.afrunt.beanmetadata.test.basic.domain.GeneratedAccessorBean;
+import org.junit.Test;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.junit.Assert.*;
+
+/**
+ * @author Andrii Frunt
+ */
+public class GeneratedBeanAccessorTest extends BasicTest {
+    @Test
+    public void testGeneratedAccessor() {
+        BeanMetadata<FieldMetadata> beanMetadata = getMetadata().getBeanMetadata(GeneratedAccessorBean.class);
+
+        BeanAccessor beanAccessor = beanMetadata.getBeanAccessor();
+        assertNotNull(beanAccessor);
+        assertEquals(BeanAccessor.generatedClassName(GeneratedAccessorBean.class), beanAccessor.getClass().getName());
+        assertEquals(-1, beanAccessor.indexOf("wrongField"));
+
+        Map<String, Object> map = new HashMap<>();
+        map.put("id", "id");
+        map.put("intField", 1);
+        map.put("booleanField", true);
+
+        GeneratedAccessorBean bean = beanMetadata.beanFromMap(GeneratedAccessorBean.class, map);
+        assertEquals("id", bean.getId());
+        assertEquals(1, bean.getIntField());
+        assertTrue(bean.isBooleanField());
+
+        map.put("readOnlyField", "readOnly");
+        assertEquals(map, beanMetadata.beanToMap(bean));
+
+        beanMetadata.applyFieldValue(bean, "intField", 2);
+        assertEquals(2, beanMetadata.getFieldValue(bean, "intField"));
+
+        try {
+            beanMetadata.applyFieldValue(bean, "readOnlyField", "value");
+            fail("Exception should be thrown");
+        } catch (Exception e) {
+            assertEquals("readOnly", bean.getReadOnlyField());
+        }
+    }
+
+    @Test
+    public void testGeneratedFieldsTable() throws NoSuchMethodException {
+        BeanMetadata<FieldMetadata> beanMetadata = getMetadata().getBeanMetadata(GeneratedAccessorBean.class);
+        assertTrue(beanMetadata.notAnnotatedWith(GenerateBeanAccessor.class));
+
+        BeanFieldsTable fieldsTable = (BeanFieldsTable) beanMetadata.getBeanAccessor();
+        assertArrayEquals(new String[]{"getIntField", "isBooleanField", "getReadOnlyField"}, fieldsTable.getDeclaredGetterNames());
+        assertArrayEquals(new String[]{"setIntField", "setBooleanField", null}, fieldsTable.getDeclaredSetterNames());
+        assertArrayEquals(new Class<?>[]{int.class, boolean.class, String.class}, fieldsTable.getDeclaredFieldTypes());
+
+        FieldMetadata intField = beanMetadata.getFieldMetadata("intField");
+        assertEquals(GeneratedAccessorBean.class.getMethod("getIntField"), intField.getGetter());
+        assertEquals(GeneratedAccessorBean.class.getMethod("setIntField", int.class), intField.getSetter());
+        assertTrue(beanMetadata.getFieldMetadata("readOnlyField").isReadOnly());
+        assertTrue(beanMetadata.hasField("id"));
+    }
+
+    @Override
+    protected Collection<Class<?>> classes() {
+        return Collections.singletonList(GeneratedAccessorBean.class);
+    }
+}
@@ -1,11 +1,15 @@
 package com.afrunt.beanmetadata.test.basic.domain;
 
+import java.math.BigDecimal;
+
 /**
  * @author Andrii Frunt
  */
 public class ConversionBean {
     private String stringField;
     private Integer integerField;
+    private Long longField;
+    private BigDecimal decimalField;
 
     public String getStringField() {
         return stringField;
@@ -24,4 +28,22 @@ public class ConversionBean {
         this.integerField = integerField;
         return this;
     }
+
+    public Long getLongField() {
+        return longField;
+    }
+
+    public ConversionBean setLongField(Long longField) {
+        this.longField = longField;
+        return this;
+    }
+
+    public BigDecimal getDecimalField() {
+        return decimalField;
+    }
+
+    public ConversionBean setDecimalField(BigDecimal decimalField) {
+        this.decimalField = decimalField;
+        return this;
+    }
 }
@@ -0,0 +1,32 @@
+package com.afrunt.beanmetadata.test.basic.domain;
+
+import com.afrunt.beanmetadata.annotation.GenerateBeanAccessor;
+
+@GenerateBeanAccessor
+public class GeneratedAccessorBean extends BaseBean {
+    private int intField;
+    private boolean booleanField;
+    private String readOnlyField = "readOnly";
+
+    public int getIntField() {
+        return intField;
+    }
+
+    public GeneratedAccessorBean setIntField(int intField) {
+        this.intField = intField;
+        return this;
+    }
+
+    public boolean isBooleanField() {
+        return booleanField;
+    }
+
+    public GeneratedAccessorBean setBooleanField(boolean booleanField) {
+        this.booleanField = booleanField;
+        return this;
+    }
+
+    public String getReadOnlyField() {
+        return readOnlyField;
+    }
+}